@@ -6,6 +6,34 @@ import Header from "./Header";
 import Main from "./Main";
 import { useAuth, useModal } from "../hooks";
 
+const PAGE_SIZE = 1000;
+
+// GET /tickets is paged newest first; follow X-Next-Cursor until every ticket is loaded.
+const fetchAllTickets = async () => {
+  const tickets = [];
+  let cursor = null;
+
+  do {
+    const query = new URLSearchParams({ limit: PAGE_SIZE });
+    if (cursor) query.append("cursor", cursor);
+
+    // eslint-disable-next-line no-await-in-loop
+    const response = await fetch(
+      `${process.env.REACT_APP_SERVER_URL}/tickets?${query.toString()}`
+    );
+
+    if (!response.ok) {
+      throw new Error(response.statusText);
+    }
+
+    // eslint-disable-next-line no-await-in-loop
+    tickets.push(...(await response.json()));
+    cursor = response.headers.get("X-Next-Cursor");
+  } while (cursor);
+
+  return tickets;
+};
+
 const App = () => {
   const history = useHistory();
   const [tickets, setTickets] = useState([]);
@@ -18,15 +46,7 @@ const App = () => {
 
     (async () => {
       try {
-        const response = await fetch(
-          `${process.env.REACT_APP_SERVER_URL}/tickets`
-        );
-
-        if (!response.ok) {
-          throw new Error(response.statusText);
-        }
-
-        const data = await response.json();
+        const data = await fetchAllTickets();
         if (isMounted) setTickets(data);
       } catch (error) {
         setNetworkError(true);
@@ -95,7 +115,7 @@ const App = () => {
     }
 
     const data = await response.json();
-    setTickets((previousTickets) => [...previousTickets, data]);
+    setTickets((previousTickets) => [data, ...previousTickets]);
     closeModal();
     history.push(`/tickets/${data.id}`);
   };
@@ -138,6 +138,55 @@ describe("App", () => {
     expect(totalTickets).toHaveTextContent("1");
   });
 
+  it("should follow next cursor when get tickets", async () => {
+    server.use(
+      rest.get(`${process.env.REACT_APP_SERVER_URL}/tickets`, (req, res, ctx) => {
+        const ticket = {
+          title: "Ticket",
+          description: "Description",
+          status: StatusEnum.OPEN,
+          category: CategoryEnum.BUG,
+          priority: PriorityEnum.MEDIUM,
+          author: "noobMaster",
+          createdAt: "2020-01-01T00:00:00",
+          updatedAt: "2020-01-02T00:00:00",
+        };
+
+        if (req.url.searchParams.get("cursor") === "next") {
+          return res(ctx.json([{ ...ticket, id: 1 }]));
+        }
+        return res(
+          ctx.set("X-Next-Cursor", "next"),
+          ctx.json([{ ...ticket, id: 2 }])
+        );
+      })
+    );
+
+    render(
+      <MemoryRouter initialEntries={["/tickets"]}>
+        <AuthProvider>
+          <ModalProvider>
+            <App />
+          </ModalProvider>
+        </AuthProvider>
+      </MemoryRouter>
+    );
+
+    const table = screen.getByRole("table");
+    const [, body] = within(table).getAllByRole("rowgroup");
+
+    const rows = await waitFor(() => {
+      const bodyRows = within(body).getAllByRole("row");
+      expect(bodyRows).toHaveLength(2);
+      return bodyRows;
+    });
+    expect(within(rows[0]).getAllByRole("cell")[0]).toHaveTextContent("2");
+    expect(within(rows[1]).getAllByRole("cell")[0]).toHaveTextContent("1");
+
+    const totalTickets = screen.getByLabelText("Total tickets:");
+    expect(totalTickets).toHaveTextContent("2");
+  });
+
   it("should render alert when get tickets and get network error", async () => {
     server.use(
       rest.get(`${process.env.REACT_APP_SERVER_URL}/tickets`, (req, res, ctx) =>
@@ -326,7 +375,7 @@ describe("App", () => {
       expect(r).toHaveLength(2);
       return r;
     });
-    const ticket = within(rows[1]).getAllByRole("cell");
+    const ticket = within(rows[0]).getAllByRole("cell");
 
     expect(ticket[0]).toHaveTextContent("3");
     expect(ticket[1]).toHaveTextContent("Ticket 2");
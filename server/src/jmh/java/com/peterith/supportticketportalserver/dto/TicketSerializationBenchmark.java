@@ -0,0 +1,104 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialises one page of tickets in each response format. The {@code wireBytes} secondary result is the size of one
+ * serialised page, i.e. what goes over the wire for a {@code GET /tickets}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketSerializationBenchmark {
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Category[] CATEGORIES = Category.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    @Param({"100"})
+    int pageSize;
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    String format;
+
+    List<TicketDTO> page;
+    ObjectWriter writer;
+    boolean gzip;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        page = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> TicketDTO.builder()
+                        .id(id)
+                        .title("Ticket " + id)
+                        .description("The login page shows an error after the password is submitted")
+                        .status(STATUSES[(int) (id % STATUSES.length)])
+                        .category(CATEGORIES[(int) (id % CATEGORIES.length)])
+                        .priority(PRIORITIES[(int) (id % PRIORITIES.length)])
+                        .author(String.format("client%06d", id % 20))
+                        .agent(id % 3 == 0 ? null : String.format("agent%06d", id % 5))
+                        .createdAt(now.minusMinutes(id))
+                        .updatedAt(now.minusSeconds(id))
+                        .version(id % 4)
+                        .build())
+                .collect(Collectors.toList());
+
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .filters(TicketField.filterProvider(TicketField.ALL));
+        if (format.equals("smile")) {
+            SmileFactory smileFactory = new SmileFactory();
+            smileFactory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+            builder.factory(smileFactory);
+        } else if (format.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        }
+
+        writer = builder.build().writerFor(new TypeReference<List<TicketDTO>>() {
+        });
+        gzip = format.equals("json-gzip");
+    }
+
+    @Benchmark
+    public byte[] serializePage(WireSize wireSize) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(page);
+
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+                outputStream.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+        }
+
+        wireSize.wireBytes = bytes.length;
+        return bytes;
+    }
+}
@@ -0,0 +1,119 @@
+package com.peterith.supportticketportalserver.duplicate;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.model.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of near-duplicate lookups and of indexing a ticket, against indexes of different sizes. Indexed tickets are
+ * random sentences over a few thousand made-up words; one in ten is a reworded copy of an earlier one, so lookups
+ * find a handful of candidates as they would during an outage. A lookup should stay roughly flat as the index grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuplicateIndexBenchmark {
+
+    private static final int VOCABULARY = 5000;
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "100000"})
+    int tickets;
+
+    DuplicateIndex index;
+    String[] words;
+    TicketDTO[] queries;
+    int next;
+    long nextId;
+
+    @Setup
+    public void setUp() {
+        index = new DuplicateIndex();
+        index.meterRegistry = new SimpleMeterRegistry();
+        index.bands = 16;
+        index.rows = 4;
+        index.shingleLength = 5;
+        index.threshold = 0.5;
+        index.init();
+
+        SplittableRandom random = new SplittableRandom(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            char[] word = new char[random.nextInt(3, 10)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) random.nextInt('a', 'z' + 1);
+            }
+            words[i] = new String(word);
+        }
+
+        String[] descriptions = new String[tickets];
+        for (int i = 0; i < tickets; i++) {
+            descriptions[i] = i % 10 == 9 ? reword(descriptions[random.nextInt(i)], random) : sentence(random, 20);
+            index.index(ticket(i + 1, sentence(random, 5), descriptions[i]));
+        }
+
+        queries = new TicketDTO[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String description = i % 2 == 0 ? reword(descriptions[random.nextInt(tickets)], random)
+                    : sentence(random, 20);
+            queries[i] = ticket(tickets + 1 + i, sentence(random, 5), description);
+        }
+        nextId = tickets + QUERIES + 1;
+
+        System.out.printf("%n%d tickets indexed in %d buckets%n", index.size(), index.bucketCount());
+    }
+
+    @Benchmark
+    public List<Long> findCandidates() {
+        TicketDTO query = nextQuery();
+        return index.findCandidates(query.getTitle(), query.getDescription(), 5);
+    }
+
+    @Benchmark
+    public int indexAndRemove() {
+        TicketDTO query = nextQuery();
+        TicketDTO ticket = ticket(nextId++, query.getTitle(), query.getDescription());
+        index.index(ticket);
+        index.remove(ticket.getId());
+        return index.size();
+    }
+
+    private TicketDTO nextQuery() {
+        next = next + 1 == queries.length ? 0 : next + 1;
+        return queries[next];
+    }
+
+    private static TicketDTO ticket(long id, String title, String description) {
+        return TicketDTO.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .status(Status.OPEN)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String sentence(SplittableRandom random, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sentence.append(i == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private String reword(String sentence, SplittableRandom random) {
+        String[] reworded = sentence.split(" ");
+        reworded[random.nextInt(reworded.length)] = words[random.nextInt(words.length)];
+        reworded[random.nextInt(reworded.length)] = words[random.nextInt(words.length)];
+        return String.join(" ", reworded) + ".";
+    }
+}
@@ -0,0 +1,73 @@
+package com.peterith.supportticketportalserver.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketBenchmark {
+
+    @Param({"100"})
+    int pageSize;
+
+    Ticket ticket;
+    List<TicketDTO> page;
+    ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        User client = User.builder().id(1L).username("noobMaster").role(Role.CLIENT).build();
+        User agent = User.builder().id(2L).username("agent007").role(Role.AGENT).build();
+
+        ticket = ticket(1L, client, agent);
+        page = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> ticket(id, client, agent).toDTO())
+                .collect(Collectors.toList());
+        listWriter = Jackson2ObjectMapperBuilder.json()
+                .filters(TicketField.filterProvider(TicketField.ALL))
+                .build()
+                .writerFor(new TypeReference<List<TicketDTO>>() {
+                });
+    }
+
+    @Benchmark
+    public TicketDTO toDTO() {
+        return ticket.toDTO();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(page);
+    }
+
+    private static Ticket ticket(long id, User author, User agent) {
+        LocalDateTime now = LocalDateTime.now();
+        return Ticket.builder()
+                .id(id)
+                .title("Ticket " + id)
+                .description("The login page shows an error after the password is submitted")
+                .status(Status.IN_PROGRESS)
+                .category(Category.ACCOUNT)
+                .priority(Priority.HIGH)
+                .author(author)
+                .agent(agent)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
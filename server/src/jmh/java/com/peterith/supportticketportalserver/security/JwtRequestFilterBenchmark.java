@@ -0,0 +1,74 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.util.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    @Param({"CLAIMS", "DATABASE"})
+    JwtAuthenticationMode authenticationMode;
+
+    JwtRequestFilter filter;
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+    FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaximumSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheExpireAfterWrite", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        MyUserDetails userDetails = new MyUserDetails(
+                User.builder().username("noobMaster").password("{noop}password").role(Role.CLIENT).build());
+
+        filter = new JwtRequestFilter();
+        filter.jwtUtils = jwtUtils;
+        filter.userDetailsService = username -> userDetails;
+        filter.authenticationMode = authenticationMode;
+
+        request = new MockHttpServletRequest("GET", "/tickets");
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateJWS(userDetails));
+        response = new MockHttpServletResponse();
+        filterChain = (servletRequest, servletResponse) -> {
+        };
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws ServletException, IOException {
+        try {
+            filter.doFilterInternal(request, response, filterChain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.util.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of the rate limit filter on its own, with a limit high enough that every request is allowed. With one
+ * key all threads compete for the same bucket; with many keys they mostly touch different ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    @Param({"1", "10000"})
+    int keys;
+
+    @Param({"false", "true"})
+    boolean authenticated;
+
+    RateLimitFilter filter;
+    String[] authorizationHeaders;
+    FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaximumSize", 100_000L);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheExpireAfterWrite", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setMethod(HttpMethod.GET);
+        endpoint.setPath("/tickets");
+        endpoint.setRequests(Integer.MAX_VALUE);
+        endpoint.setPeriod(Duration.ofSeconds(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEndpoints(List.of(endpoint));
+
+        filter = new RateLimitFilter();
+        filter.properties = properties;
+        filter.jwtUtils = jwtUtils;
+        filter.meterRegistry = new SimpleMeterRegistry();
+        filter.init();
+
+        authorizationHeaders = new String[keys];
+        for (int i = 0; i < keys && authenticated; i++) {
+            authorizationHeaders[i] = "Bearer " + jwtUtils.generateJWS(new MyUserDetails(User.builder()
+                    .username(String.format("client%06d", i))
+                    .password("{noop}password")
+                    .role(Role.CLIENT)
+                    .build()));
+        }
+        filterChain = (servletRequest, servletResponse) -> {
+        };
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        MockHttpServletRequest[] requests;
+        MockHttpServletResponse response;
+        int next;
+
+        @Setup
+        public void setUp(RateLimitFilterBenchmark benchmark) {
+            requests = new MockHttpServletRequest[benchmark.keys];
+            for (int i = 0; i < benchmark.keys; i++) {
+                requests[i] = new MockHttpServletRequest("GET", "/tickets");
+                requests[i].setRemoteAddr("10.0." + (i >> 8) + "." + (i & 0xff));
+                if (benchmark.authenticated) {
+                    requests[i].addHeader("Authorization", benchmark.authorizationHeaders[i]);
+                }
+            }
+            response = new MockHttpServletResponse();
+            next = THREADS.getAndIncrement() * 7919 % benchmark.keys;
+        }
+
+        MockHttpServletRequest next() {
+            next = next + 1 == requests.length ? 0 : next + 1;
+            return requests[next];
+        }
+    }
+
+    @Benchmark
+    public int doFilterInternal(Requests requests) throws ServletException, IOException {
+        filter.doFilterInternal(requests.next(), requests.response, filterChain);
+        return requests.response.getStatus();
+    }
+}
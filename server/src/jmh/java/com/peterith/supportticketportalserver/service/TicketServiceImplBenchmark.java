@@ -0,0 +1,86 @@
+package com.peterith.supportticketportalserver.service;
+
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.exception.ForbiddenException;
+import com.peterith.supportticketportalserver.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketServiceImplBenchmark {
+
+    TicketServiceImpl ticketService;
+    Ticket ticket;
+    Authentication clientAuthentication;
+    Authentication agentAuthentication;
+    UpdateTicketInput authorUpdate;
+    UpdateTicketInput agentStatusUpdate;
+    UpdateTicketInput agentTitleUpdate;
+
+    @Setup
+    public void setUp() {
+        User client = User.builder().id(1L).username("noobMaster").role(Role.CLIENT).build();
+        User agent = User.builder().id(2L).username("agent007").role(Role.AGENT).build();
+
+        ticketService = new TicketServiceImpl();
+        ticket = Ticket.builder()
+                .id(1L)
+                .title("Ticket 1")
+                .description("Description 1")
+                .status(Status.OPEN)
+                .category(Category.BUG)
+                .priority(Priority.MEDIUM)
+                .author(client)
+                .agent(agent)
+                .build();
+
+        clientAuthentication = new UsernamePasswordAuthenticationToken(
+                client.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.CLIENT)));
+        agentAuthentication = new UsernamePasswordAuthenticationToken(
+                agent.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.AGENT)));
+
+        authorUpdate = update("New Ticket 1", Status.CLOSED);
+        agentStatusUpdate = update(ticket.getTitle(), Status.IN_PROGRESS);
+        agentTitleUpdate = update("New Ticket 1", Status.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public void validateAuthorUpdate() {
+        ticketService.validateUpdatedTicket(ticket, authorUpdate, clientAuthentication);
+    }
+
+    @Benchmark
+    public void validateAgentStatusUpdate() {
+        ticketService.validateUpdatedTicket(ticket, agentStatusUpdate, agentAuthentication);
+    }
+
+    @Benchmark
+    public boolean validateForbiddenAgentUpdate() {
+        try {
+            ticketService.validateUpdatedTicket(ticket, agentTitleUpdate, agentAuthentication);
+            return false;
+        } catch (ForbiddenException fe) {
+            return true;
+        }
+    }
+
+    private UpdateTicketInput update(String title, Status status) {
+        return UpdateTicketInput.builder()
+                .title(title)
+                .description(ticket.getDescription())
+                .status(status)
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.peterith.supportticketportalserver.util;
+
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.security.MyUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final int DISTINCT_TOKENS = 1024;
+
+    JwtUtils cachingJwtUtils;
+    JwtUtils nonCachingJwtUtils;
+    UserDetails userDetails;
+    String header;
+    String[] distinctHeaders;
+    int nextHeader;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        String jwtSecret = Base64.getEncoder().encodeToString(secret);
+
+        cachingJwtUtils = jwtUtils(jwtSecret, 10_000);
+        nonCachingJwtUtils = jwtUtils(jwtSecret, 1);
+        userDetails = new MyUserDetails(
+                User.builder().username("noobMaster").password("{noop}password").role(Role.CLIENT).build());
+        header = "Bearer " + cachingJwtUtils.generateJWS(userDetails);
+
+        distinctHeaders = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            UserDetails user = new MyUserDetails(
+                    User.builder().username("user" + i).password("{noop}password").role(Role.CLIENT).build());
+            distinctHeaders[i] = "Bearer " + cachingJwtUtils.generateJWS(user);
+        }
+    }
+
+    @Benchmark
+    public String generateJWS() {
+        return cachingJwtUtils.generateJWS(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsernameFromRequestHeader() {
+        return cachingJwtUtils.extractUsernameFromRequestHeader(header);
+    }
+
+    @Benchmark
+    public String extractUsernameFromRequestHeaderWithoutCache() {
+        nextHeader = (nextHeader + 1) % DISTINCT_TOKENS;
+        return nonCachingJwtUtils.extractUsernameFromRequestHeader(distinctHeaders[nextHeader]);
+    }
+
+    static JwtUtils jwtUtils(String jwtSecret, long verifiedTokenCacheMaximumSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        jwtUtils.meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", jwtSecret);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheMaximumSize", verifiedTokenCacheMaximumSize);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCacheExpireAfterWrite", Duration.ofMinutes(5));
+        jwtUtils.init();
+        return jwtUtils;
+    }
+}
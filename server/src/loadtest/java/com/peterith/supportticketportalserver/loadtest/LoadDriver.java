@@ -0,0 +1,347 @@
+package com.peterith.supportticketportalserver.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterith.supportticketportalserver.SupportTicketPortalServerApplication;
+import com.peterith.supportticketportalserver.cli.DataGeneratorRunner;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop load driver for the REST API.
+ * <p>
+ * Without {@code --base-url} the application is started in this JVM against the in-memory test database and seeded
+ * through {@link DataGeneratorRunner}. Each worker picks an operation from {@code --mix}, signs a JWT for a random
+ * generated user and records the call's latency in a per-endpoint histogram. Samples taken during {@code --warmup}
+ * are discarded. Being closed-loop, the percentiles understate queueing delay once the server saturates.
+ */
+public class LoadDriver {
+
+    private static final int SAMPLE_PAGE_SIZE = 1000;
+    private static final int LIST_PAGE_SIZE = 100;
+
+    private enum Operation {
+        LIST("GET /tickets"),
+        GET("GET /tickets/{id}"),
+        CREATE("POST /tickets"),
+        UPDATE("PUT /tickets/{id}"),
+        DELETE("DELETE /tickets/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<String> clientTokens = new ArrayList<>();
+    private final Map<String, String> tokensByUsername = new HashMap<>();
+    private final List<Map<String, Object>> sampledTickets = new ArrayList<>();
+    private final BlockingQueue<Map<String, Object>> createdTickets = new LinkedBlockingQueue<>();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final AtomicLongArray errors = new AtomicLongArray(Operation.values().length);
+
+    private volatile boolean recording;
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.getProperty("base-url");
+        String jwtSecret = options.getProperty("jwt-secret");
+
+        if (baseUrl == null) {
+            context = SpringApplication.run(SupportTicketPortalServerApplication.class, withDefaults(args, Map.of(
+                    "server.port", "0",
+                    "generate.tickets", "100000",
+                    "spring.jpa.properties.hibernate.generate_statistics", "false",
+                    "rate-limit.enabled", "false",
+                    "logging.level.root", "WARN")));
+            baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            jwtSecret = context.getEnvironment().getProperty("jwt.secret");
+        }
+
+        try {
+            new LoadDriver(baseUrl, options).run(jwtSecret,
+                    Integer.parseInt(option(options, "generate.clients", "1000")),
+                    Integer.parseInt(option(options, "generate.agents", "50")));
+        } finally {
+            if (context != null) {
+                SpringApplication.exit(context);
+            }
+        }
+    }
+
+    private LoadDriver(String baseUrl, SimpleCommandLinePropertySource options) {
+        this.baseUrl = baseUrl;
+        this.threads = Integer.parseInt(option(options, "threads", "16"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(option(options, "warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(option(options, "duration", "60")));
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : option(options, "mix", "list:50,get:30,create:10,update:8,delete:2").split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+
+        operations = mix.keySet().toArray(new Operation[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+        }
+    }
+
+    private void run(String jwtSecret, int clients, int agents) throws Exception {
+        Objects.requireNonNull(jwtSecret, "--jwt-secret is required with --base-url");
+        Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret));
+
+        for (int i = 0; i < clients; i++) {
+            String token = sign(key, DataGeneratorRunner.clientUsername(i), "CLIENT");
+            clientTokens.add(token);
+            tokensByUsername.put(DataGeneratorRunner.clientUsername(i), token);
+        }
+        for (int i = 0; i < agents; i++) {
+            tokensByUsername.put(DataGeneratorRunner.agentUsername(i),
+                    sign(key, DataGeneratorRunner.agentUsername(i), "AGENT"));
+        }
+
+        sampleTickets(10 * SAMPLE_PAGE_SIZE);
+        System.out.printf("Driving %s with %d threads for %ds after %ds warm-up, %d sampled tickets%n",
+                baseUrl, threads, duration.toSeconds(), warmup.toSeconds(), sampledTickets.size());
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + warmup.plus(duration).toNanos();
+        for (int i = 0; i < threads; i++) {
+            workers.execute(() -> work(deadline));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        recorders.values().forEach(Recorder::reset);
+        recording = true;
+
+        workers.shutdown();
+        workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        report();
+    }
+
+    private void work(long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadline) {
+            Operation operation = nextOperation(random);
+            long start = System.nanoTime();
+            boolean succeeded;
+
+            try {
+                succeeded = execute(operation, random);
+            } catch (IOException e) {
+                succeeded = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            recorders.get(operation).recordValue((System.nanoTime() - start) / 1000);
+            if (!succeeded && recording) {
+                errors.incrementAndGet(operation.ordinal());
+            }
+        }
+    }
+
+    private boolean execute(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        switch (operation) {
+            case LIST:
+                return send(request("/tickets?limit=" + LIST_PAGE_SIZE, randomClientToken(random)).GET()) != null;
+            case GET:
+                return send(request("/tickets/" + randomSampledTicket(random).get("id"), randomClientToken(random))
+                        .GET()) != null;
+            case CREATE:
+                return create(random);
+            case UPDATE:
+                return update(randomSampledTicket(random), random);
+            default:
+                return delete(random);
+        }
+    }
+
+    private boolean create(ThreadLocalRandom random) throws IOException, InterruptedException {
+        Map<String, Object> input = Map.of(
+                "title", "Load test ticket " + random.nextInt(1_000_000),
+                "description", "Created by the load driver",
+                "category", "BUG");
+        String body = send(request("/tickets", randomClientToken(random))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(input))));
+
+        if (body != null) {
+            createdTickets.offer(objectMapper.readValue(body, new TypeReference<Map<String, Object>>() {
+            }));
+        }
+        return body != null;
+    }
+
+    private boolean update(Map<String, Object> ticket, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        Map<String, Object> input = new HashMap<>();
+        input.put("title", ticket.get("title"));
+        input.put("description", ticket.get("description"));
+        input.put("status", "OPEN");
+        input.put("category", ticket.get("category"));
+        input.put("priority", random.nextBoolean() ? "HIGH" : "LOW");
+        input.put("agent", ticket.get("agent"));
+
+        return send(request("/tickets/" + ticket.get("id"), tokensByUsername.get((String) ticket.get("author")))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(input)))) != null;
+    }
+
+    private boolean delete(ThreadLocalRandom random) throws IOException, InterruptedException {
+        Map<String, Object> ticket = createdTickets.poll();
+
+        if (ticket == null) {
+            return create(random);
+        }
+
+        return send(request("/tickets/" + ticket.get("id"), tokensByUsername.get((String) ticket.get("author")))
+                .DELETE()) != null;
+    }
+
+    private void sampleTickets(int limit) throws IOException, InterruptedException {
+        String cursor = null;
+
+        do {
+            String query = "/tickets?limit=" + SAMPLE_PAGE_SIZE + (cursor == null ? "" : "&cursor=" + cursor);
+            HttpResponse<String> response = httpClient.send(request(query, null).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            sampledTickets.addAll(objectMapper.readValue(response.body(),
+                    new TypeReference<List<Map<String, Object>>>() {
+                    }));
+            cursor = response.headers().firstValue("X-Next-Cursor").orElse(null);
+        } while (cursor != null && sampledTickets.size() < limit);
+
+        sampledTickets.removeIf(ticket -> !tokensByUsername.containsKey((String) ticket.get("author")));
+        if (sampledTickets.isEmpty()) {
+            throw new IllegalStateException("No tickets by generated users found at " + baseUrl);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() / 100 == 2 ? response.body() : null;
+    }
+
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int target = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String randomClientToken(ThreadLocalRandom random) {
+        return clientTokens.get(random.nextInt(clientTokens.size()));
+    }
+
+    private Map<String, Object> randomSampledTicket(ThreadLocalRandom random) {
+        return sampledTickets.get(random.nextInt(sampledTickets.size()));
+    }
+
+    private void report() {
+        double seconds = duration.toMillis() / 1000.0;
+        Histogram total = new Histogram(3);
+
+        System.out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : operations) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            total.add(histogram);
+            print(operation.endpoint, histogram, errors.get(operation.ordinal()), seconds);
+        }
+
+        long totalErrors = 0;
+        for (int i = 0; i < errors.length(); i++) {
+            totalErrors += errors.get(i);
+        }
+        print("total", total, totalErrors, seconds);
+    }
+
+    private void print(String endpoint, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static String sign(Key key, String username, String role) {
+        return Jwts.builder()
+                .setSubject(username)
+                .setIssuedAt(Date.from(Instant.now()))
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofDays(1))))
+                .claim("role", role)
+                .signWith(key)
+                .compact();
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private static String[] withDefaults(String[] args, Map<String, String> defaults) {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        List<String> merged = new ArrayList<>(Arrays.asList(args));
+        defaults.forEach((name, value) -> {
+            if (!options.containsProperty(name)) {
+                merged.add("--" + name + "=" + value);
+            }
+        });
+        return merged.toArray(new String[0]);
+    }
+}
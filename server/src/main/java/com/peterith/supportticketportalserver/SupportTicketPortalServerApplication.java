@@ -1,12 +1,27 @@
 package com.peterith.supportticketportalserver;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.peterith.supportticketportalserver.dto.TicketField;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+@EnableCaching
+@EnableScheduling
 @SpringBootApplication
 public class SupportTicketPortalServerApplication {
 
@@ -14,7 +29,35 @@ public class SupportTicketPortalServerApplication {
     private String corsOrigin;
 
     public static void main(String[] args) {
-        SpringApplication.run(SupportTicketPortalServerApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(SupportTicketPortalServerApplication.class, args);
+
+        if (context.getEnvironment().containsProperty("import.file")) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * Serializes every property of filtered DTOs unless a response narrows them, see {@link TicketField}.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer defaultFilterCustomizer() {
+        return builder -> builder.filters(
+                new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Smile with shared string values, so that repeated enum names and usernames in a ticket list are written once.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory smileFactory = new SmileFactory();
+        smileFactory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(smileFactory).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
     }
 
     @Bean
@@ -28,10 +71,37 @@ public class SupportTicketPortalServerApplication {
 
                 registry.addMapping("/tickets")
                         .allowedMethods("GET", "POST")
+                        .exposedHeaders("X-Next-Cursor", "ETag")
+                        .allowedOrigins(corsOrigin);
+
+                registry.addMapping("/tickets/search")
+                        .allowedMethods("GET")
+                        .allowedOrigins(corsOrigin);
+
+                registry.addMapping("/tickets/events")
+                        .allowedMethods("GET")
+                        .allowedOrigins(corsOrigin);
+
+                registry.addMapping("/tickets/export")
+                        .allowedMethods("GET")
+                        .allowedOrigins(corsOrigin);
+
+                registry.addMapping("/tickets/batch")
+                        .allowedMethods("POST")
+                        .allowedOrigins(corsOrigin);
+
+                registry.addMapping("/tickets/import")
+                        .allowedMethods("POST")
+                        .allowedOrigins(corsOrigin);
+
+                registry.addMapping("/tickets/*/history")
+                        .allowedMethods("GET")
+                        .exposedHeaders("X-Next-Cursor")
                         .allowedOrigins(corsOrigin);
 
                 registry.addMapping("/tickets/*")
-                        .allowedMethods("DELETE", "PUT")
+                        .allowedMethods("GET", "DELETE", "PUT")
+                        .exposedHeaders("ETag")
                         .allowedOrigins(corsOrigin);
             }
         };
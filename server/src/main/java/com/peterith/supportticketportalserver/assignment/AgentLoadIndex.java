@@ -0,0 +1,189 @@
+package com.peterith.supportticketportalserver.assignment;
+
+import com.peterith.supportticketportalserver.dto.TicketCount;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Open and in-progress ticket load per agent, weighted by priority, for assigning new tickets to the least-loaded
+ * agent.
+ * <p>
+ * Agents are kept in a set ordered by load, so picking one and moving it after a change are both O(log n). A pick
+ * reserves its weight straight away, so concurrent creates spread over agents instead of all seeing the same
+ * minimum. The reservation is released when the transaction completes; on commit the ticket's CREATED event has
+ * already added the same weight back as committed load. As with the ticket statistics, committed load is rebuilt
+ * from the database at start-up and periodically, which is also when new agents become eligible. An event whose
+ * listener runs while a rebuild reads the counts may be missing from, or already included in, the rebuilt loads; that
+ * drift lasts until the next rebuild.
+ */
+@Component
+public class AgentLoadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentLoadIndex.class);
+
+    private static final Map<Priority, Long> WEIGHTS = new EnumMap<>(Map.of(
+            Priority.LOW, 1L,
+            Priority.MEDIUM, 2L,
+            Priority.HIGH, 4L));
+
+    private static final Comparator<AgentLoad> LEAST_LOADED = Comparator.comparingLong((AgentLoad load) -> load.load)
+            .thenComparing(load -> load.agent);
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    private final Map<String, AgentLoad> loads = new HashMap<>();
+    private final NavigableSet<AgentLoad> byLoad = new TreeSet<>(LEAST_LOADED);
+    private final Object rebuildLock = new Object();
+
+    public static long weightOf(Status status, Priority priority) {
+        return status == Status.OPEN || status == Status.IN_PROGRESS ? WEIGHTS.get(priority) : 0;
+    }
+
+    /**
+     * Picks the least-loaded agent for a new ticket and reserves its weight until the current transaction completes.
+     */
+    public synchronized Optional<String> assign(Priority priority) {
+        if (byLoad.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+
+        String agent = byLoad.first().agent;
+        long weight = weightOf(Status.OPEN, priority);
+        adjust(agent, 0, weight);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(agent, weight);
+            }
+        });
+        return Optional.of(agent);
+    }
+
+    public synchronized Optional<Long> loadOf(String agent) {
+        return Optional.ofNullable(loads.get(agent)).map(load -> load.load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEvent event) {
+        if (event.getType() == TicketEvent.Type.DELETED) {
+            add(event.getTicket(), -1);
+        } else {
+            if (event.getPrevious() != null) {
+                add(event.getPrevious(), -1);
+            }
+            add(event.getTicket(), 1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${tickets.assignment.rebuild-interval:300000}",
+            fixedDelayString = "${tickets.assignment.rebuild-interval:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            try {
+                replace(readCommitted());
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild agent load index", e);
+            }
+        }
+    }
+
+    private Map<String, Long> readCommitted() {
+        Map<String, Long> committed = new HashMap<>();
+        for (String agent : userRepository.findUsernameByRole(Role.AGENT)) {
+            committed.put(agent, 0L);
+        }
+        for (TicketCount count : ticketRepository.countByStatusAndCategoryAndPriorityAndAgent()) {
+            if (count.getAgent() != null) {
+                committed.computeIfPresent(count.getAgent(),
+                        (agent, load) -> load + weightOf(count.getStatus(), count.getPriority()) * count.getCount());
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Swaps in the rebuilt committed loads, keeping the reservations of transactions still in flight.
+     */
+    private synchronized void replace(Map<String, Long> committed) {
+        Map<String, AgentLoad> previous = new HashMap<>(loads);
+        loads.clear();
+        byLoad.clear();
+
+        committed.forEach((agent, load) -> {
+            long reserved = previous.containsKey(agent) ? previous.get(agent).reserved : 0;
+            AgentLoad agentLoad = new AgentLoad(agent, load + reserved, reserved);
+            loads.put(agent, agentLoad);
+            byLoad.add(agentLoad);
+        });
+    }
+
+    private synchronized void add(TicketDTO ticket, int sign) {
+        if (ticket.getAgent() == null) {
+            return;
+        }
+
+        adjust(ticket.getAgent(), sign * weightOf(ticket.getStatus(), ticket.getPriority()), 0);
+    }
+
+    private synchronized void release(String agent, long weight) {
+        adjust(agent, 0, -weight);
+    }
+
+    /**
+     * Agents that are not indexed are ignored; they are picked up by the next rebuild.
+     */
+    private void adjust(String agent, long committedDelta, long reservedDelta) {
+        AgentLoad current = loads.get(agent);
+        if (current == null) {
+            return;
+        }
+
+        AgentLoad updated = new AgentLoad(agent, current.load + committedDelta + reservedDelta,
+                current.reserved + reservedDelta);
+        byLoad.remove(current);
+        byLoad.add(updated);
+        loads.put(agent, updated);
+    }
+
+    private static class AgentLoad {
+
+        private final String agent;
+        private final long load;
+        private final long reserved;
+
+        private AgentLoad(String agent, long load, long reserved) {
+            this.agent = agent;
+            this.load = load;
+            this.reserved = reserved;
+        }
+    }
+}
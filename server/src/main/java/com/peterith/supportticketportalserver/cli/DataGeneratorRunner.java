@@ -0,0 +1,207 @@
+package com.peterith.supportticketportalserver.cli;
+
+import com.peterith.supportticketportalserver.dto.ImportReport;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.UserRepository;
+import com.peterith.supportticketportalserver.service.TicketImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds the database with synthetic users and tickets, e.g. {@code --generate.tickets=100000}.
+ * <p>
+ * Tickets go through the bulk import path. Authors are skewed so that a few clients file most tickets, and most
+ * open tickets are still unassigned. Creation times are spread over the last {@code generate.days} days. Open and
+ * in-progress tickets were last updated within the past hour, so the SLA scheduler does not start on a backlog of
+ * breaches; other tickets at some point between creation and now.
+ * <p>
+ * This is an {@link ApplicationRunner}, so it runs once the server is already accepting requests. Wait for the
+ * "Generated ..." log line before sending load.
+ */
+@Component
+@ConditionalOnProperty("generate.tickets")
+public class DataGeneratorRunner implements ApplicationRunner {
+
+    public static final String PASSWORD = "{noop}password";
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorRunner.class);
+
+    private static final int USER_BATCH_SIZE = 500;
+    private static final double ASSIGNED_OPEN_TICKET_RATIO = 0.2;
+    private static final long ACTIVE_UPDATE_WINDOW_SECONDS = 3600;
+    private static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.OPEN, Status.IN_PROGRESS);
+
+    private static final Weighted<Status> STATUSES = new Weighted<>(
+            Status.values(), new int[]{30, 20, 15, 35});
+    private static final Weighted<Category> CATEGORIES = new Weighted<>(
+            Category.values(), new int[]{35, 15, 30, 20});
+    private static final Weighted<Priority> PRIORITIES = new Weighted<>(
+            Priority.values(), new int[]{30, 50, 20});
+
+    private static final String[] SUBJECTS = {
+            "Login page", "Password reset", "Invoice export", "Dashboard", "Billing page", "Mobile app",
+            "API token", "Search", "Email notifications", "Report builder", "User settings", "File upload"
+    };
+    private static final String[] PROBLEMS = {
+            "shows an error", "is very slow", "does not load", "returns the wrong data", "crashes on save",
+            "times out", "needs a dark mode", "is missing a field", "logs me out", "ignores my changes"
+    };
+    private static final String[] WORDS = {
+            "after", "again", "browser", "button", "cannot", "customer", "data", "every", "expected", "failed",
+            "first", "page", "please", "problem", "refresh", "request", "since", "still", "team", "the", "this",
+            "today", "update", "user", "when", "while", "with", "working", "yesterday"
+    };
+
+    @Value("${generate.tickets}")
+    private long tickets;
+
+    @Value("${generate.clients:1000}")
+    private int clients;
+
+    @Value("${generate.agents:50}")
+    private int agents;
+
+    @Value("${generate.days:365}")
+    private int days;
+
+    @Value("${generate.seed:42}")
+    private long seed;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TicketImportService ticketImportService;
+
+    public static String clientUsername(int index) {
+        return String.format("client%06d", index);
+    }
+
+    public static String agentUsername(int index) {
+        return String.format("agent%06d", index);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Random random = new Random(seed);
+        createUsers(clients, Role.CLIENT, DataGeneratorRunner::clientUsername);
+        createUsers(agents, Role.AGENT, DataGeneratorRunner::agentUsername);
+
+        ImportReport report = ticketImportService.importRows(new TicketRows(random, LocalDateTime.now()));
+        logger.info("Generated {} clients, {} agents and {} tickets", clients, agents, report.getImported());
+    }
+
+    private void createUsers(int count, Role role, IntFunction<String> username) {
+        Set<String> existing = userRepository.findAll().stream().map(User::getUsername).collect(Collectors.toSet());
+        List<User> batch = new ArrayList<>(USER_BATCH_SIZE);
+
+        for (int i = 0; i < count; i++) {
+            if (!existing.contains(username.apply(i))) {
+                batch.add(User.builder().username(username.apply(i)).password(PASSWORD).role(role).build());
+            }
+
+            if (batch.size() == USER_BATCH_SIZE || (i == count - 1 && !batch.isEmpty())) {
+                userRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private class TicketRows implements Iterator<Map<String, String>> {
+
+        private final Random random;
+        private final LocalDateTime now;
+        private final long windowSeconds;
+        private long generated;
+
+        private TicketRows(Random random, LocalDateTime now) {
+            this.random = random;
+            this.now = now;
+            this.windowSeconds = Duration.ofDays(days).getSeconds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return generated < tickets;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            generated++;
+            Status status = STATUSES.next(random);
+            boolean assigned = agents > 0 &&
+                    (status != Status.OPEN || random.nextDouble() < ASSIGNED_OPEN_TICKET_RATIO);
+
+            Map<String, String> row = new HashMap<>();
+            row.put("title", pick(SUBJECTS) + " " + pick(PROBLEMS));
+            row.put("description", description());
+            row.put("status", status.name());
+            row.put("category", CATEGORIES.next(random).name());
+            row.put("priority", PRIORITIES.next(random).name());
+            row.put("author", clientUsername((int) (clients * Math.pow(random.nextDouble(), 3))));
+            row.put("agent", assigned ? agentUsername(random.nextInt(agents)) : null);
+
+            long ageSeconds = (long) (random.nextDouble() * windowSeconds);
+            LocalDateTime createdAt = now.minusSeconds(ageSeconds);
+            LocalDateTime updatedAt = ACTIVE_STATUSES.contains(status)
+                    ? now.minusSeconds((long) (random.nextDouble() * Math.min(ageSeconds, ACTIVE_UPDATE_WINDOW_SECONDS)))
+                    : createdAt.plusSeconds((long) (random.nextDouble() * ageSeconds));
+            row.put("createdAt", createdAt.toString());
+            row.put("updatedAt", updatedAt.toString());
+            return row;
+        }
+
+        private String description() {
+            int words = 5 + random.nextInt(60);
+            StringBuilder description = new StringBuilder(words * 8);
+
+            for (int i = 0; i < words; i++) {
+                description.append(i == 0 ? "" : " ").append(pick(WORDS));
+            }
+            return description.append('.').toString();
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+
+    private static class Weighted<E> {
+
+        private final E[] values;
+        private final int[] cumulativeWeights;
+
+        private Weighted(E[] values, int[] weights) {
+            this.values = values;
+            this.cumulativeWeights = new int[weights.length];
+
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        private E next(Random random) {
+            int target = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, target + 1);
+            return values[index >= 0 ? index : -index - 1];
+        }
+    }
+}
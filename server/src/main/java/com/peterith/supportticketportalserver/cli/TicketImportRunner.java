@@ -0,0 +1,64 @@
+package com.peterith.supportticketportalserver.cli;
+
+import com.peterith.supportticketportalserver.dto.ImportReport;
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+import com.peterith.supportticketportalserver.service.TicketImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports {@code import.file} at start-up. The exit code, 1 if any row failed, is picked up by
+ * {@link org.springframework.boot.SpringApplication#exit} once the import is done.
+ */
+@Component
+@ConditionalOnProperty("import.file")
+public class TicketImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketImportRunner.class);
+
+    @Value("${import.file}")
+    private Path file;
+
+    @Value("${import.format:}")
+    private String format;
+
+    @Autowired
+    TicketImportService ticketImportService;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        TicketFileFormat fileFormat = TicketFileFormat.fromName(format.isEmpty() ? fileExtension() : format);
+        ImportReport report;
+
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file))) {
+            report = ticketImportService.importTickets(inputStream, fileFormat);
+        }
+
+        report.getErrors().forEach(error -> logger.error("Failed to import {}", error));
+        exitCode = report.getFailed() == 0 ? 0 : 1;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private String fileExtension() {
+        String name = file.getFileName().toString();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
@@ -1,76 +1,261 @@
 package com.peterith.supportticketportalserver.controller;
 
+import com.peterith.supportticketportalserver.dto.BatchTicketInput;
+import com.peterith.supportticketportalserver.dto.BatchTicketResult;
 import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketChangePage;
+import com.peterith.supportticketportalserver.dto.ImportReport;
+import com.peterith.supportticketportalserver.dto.TicketCursor;
 import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.dto.TicketPage;
+import com.peterith.supportticketportalserver.dto.TicketStats;
+import com.peterith.supportticketportalserver.dto.TicketVersion;
 import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.event.TicketEventStream;
 import com.peterith.supportticketportalserver.exception.AgentNotFoundException;
 import com.peterith.supportticketportalserver.exception.AuthorNotFoundException;
 import com.peterith.supportticketportalserver.exception.ForbiddenException;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyInUseException;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyReusedException;
+import com.peterith.supportticketportalserver.exception.InvalidCursorException;
+import com.peterith.supportticketportalserver.exception.VersionMismatchException;
+import com.peterith.supportticketportalserver.idempotency.IdempotencyStore;
+import com.peterith.supportticketportalserver.service.TicketExportService;
+import com.peterith.supportticketportalserver.service.TicketImportService;
 import com.peterith.supportticketportalserver.service.TicketService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
 public class TicketController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     TicketService ticketService;
 
+    @Autowired
+    TicketExportService ticketExportService;
+
+    @Autowired
+    TicketImportService ticketImportService;
+
+    @Autowired
+    TicketEventStream ticketEventStream;
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
     @GetMapping("/tickets")
-    public ResponseEntity<List<TicketDTO>> getAllTickets() {
-        List<TicketDTO> dtos = ticketService.findAll();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity getAllTickets(TicketFilter filter,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+                                        @RequestParam(required = false) String fields,
+                                        WebRequest request) {
+        try {
+            TicketCursor ticketCursor = cursor == null ? null : TicketCursor.decode(cursor);
+            Set<TicketField> ticketFields = TicketField.parse(fields);
+            int pageSize = clampPageSize(limit);
+
+            String eTag = ticketService.findVersion(filter).toETag(filter + "," + cursor + "," + pageSize + "," +
+                    ticketFields + "," + TicketMediaTypes.negotiate(request.getHeader(HttpHeaders.ACCEPT)));
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
+            TicketPage page = ticketService.findPage(filter, ticketCursor, pageSize, ticketFields);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+            }
+            return response.body(withFields(page.getTickets(), ticketFields));
+        } catch (InvalidCursorException ice) {
+            return ResponseEntity.badRequest().body("cursor: invalid");
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body("fields: unknown field");
+        }
+    }
+
+    @GetMapping("/tickets/search")
+    public ResponseEntity searchTickets(@RequestParam String q,
+                                        TicketFilter filter,
+                                        @RequestParam(defaultValue = "" + DEFAULT_SEARCH_SIZE) int limit,
+                                        @RequestParam(required = false) String fields) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body("q: must not be blank");
+        }
+
+        Set<TicketField> ticketFields;
+        try {
+            ticketFields = TicketField.parse(fields);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body("fields: unknown field");
+        }
+
+        List<TicketDTO> dtos = ticketService.search(q, filter, clampPageSize(limit), ticketFields);
+        return ResponseEntity.ok(withFields(dtos, ticketFields));
+    }
+
+    @GetMapping("/tickets/stats")
+    public ResponseEntity<TicketStats> getTicketStats() {
+        return ResponseEntity.ok(ticketService.getStats());
+    }
+
+    @GetMapping(path = "/tickets/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTicketEvents(TicketFilter filter,
+                                         @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return ticketEventStream.subscribe(filter, lastEventId);
+    }
+
+    @GetMapping("/tickets/export")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            TicketFilter filter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        try {
+            TicketFileFormat exportFormat = TicketFileFormat.fromName(format);
+            StreamingResponseBody body = outputStream ->
+                    ticketExportService.export(filter, since, exportFormat, outputStream);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=tickets." + exportFormat.getFileExtension())
+                    .body(body);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(outputStream ->
+                    outputStream.write("format: must be ndjson or csv".getBytes(StandardCharsets.UTF_8)));
+        }
     }
 
     @PostMapping("/tickets")
-    public ResponseEntity createTicket(@RequestBody CreateTicketInput input) {
+    public ResponseEntity createTicket(@RequestBody CreateTicketInput input,
+                                       @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+                                               String idempotencyKey) {
+        if (idempotencyKey != null &&
+                (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyStore.MAX_KEY_LENGTH)) {
+            return ResponseEntity.badRequest().body(
+                    IDEMPOTENCY_KEY_HEADER + ": must be 1 to " + IdempotencyStore.MAX_KEY_LENGTH + " characters");
+        }
+
         try {
             String username = getContextAuthentication().getName();
-            TicketDTO dto = ticketService.create(input, username);
+            TicketDTO dto = idempotencyKey == null
+                    ? ticketService.create(input, username)
+                    : idempotencyStore.create(username, idempotencyKey, input,
+                    () -> ticketService.create(input, username, idempotencyKey));
             return ResponseEntity.ok(dto);
         } catch (ConstraintViolationException cve) {
             String constraintViolations = getConstraintViolations(cve);
             return ResponseEntity.unprocessableEntity().body(constraintViolations);
         } catch (AuthorNotFoundException anfe) {
             return ResponseEntity.unprocessableEntity().body("author: unknown username");
+        } catch (IdempotencyKeyReusedException ikre) {
+            return ResponseEntity.unprocessableEntity().body(IDEMPOTENCY_KEY_HEADER + ": used for a different ticket");
+        } catch (IdempotencyKeyInUseException ikiue) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(IDEMPOTENCY_KEY_HEADER + ": request in progress");
         }
     }
 
     @GetMapping("/tickets/{id}")
-    public ResponseEntity<TicketDTO> getTicket(@PathVariable Long id) {
+    public ResponseEntity<TicketDTO> getTicket(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = ticketService.findVersionById(id);
+
+        MediaType mediaType = TicketMediaTypes.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+
+        if (version.isPresent() && request.checkNotModified(TicketVersion.eTagOf(version.get(), mediaType))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         Optional<TicketDTO> dto = ticketService.findById(id);
         return dto.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/tickets/{id}/history")
+    public ResponseEntity getTicketHistory(@PathVariable Long id,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        Long changeCursor;
+        try {
+            changeCursor = cursor == null ? null : Long.valueOf(cursor);
+        } catch (NumberFormatException nfe) {
+            return ResponseEntity.badRequest().body("cursor: invalid");
+        }
+
+        TicketChangePage page;
+        try {
+            page = ticketService.findHistory(id, changeCursor, clampPageSize(limit));
+        } catch (NoSuchElementException nsee) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getChanges());
+    }
+
     @DeleteMapping("/tickets/{id}")
-    public ResponseEntity deleteTicket(@PathVariable Long id) {
+    public ResponseEntity deleteTicket(@PathVariable Long id,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             String username = getContextAuthentication().getName();
-            TicketDTO dto = ticketService.deleteById(id, username);
+            TicketDTO dto = ticketService.deleteById(id, username, TicketVersion.parseIfMatch(ifMatch));
             return ResponseEntity.ok(dto);
         } catch (NoSuchElementException nsee) {
             return ResponseEntity.notFound().build();
         } catch (ForbiddenException ue) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (VersionMismatchException vme) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("version: does not match If-Match");
+        } catch (ObjectOptimisticLockingFailureException oolfe) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("version: ticket was modified concurrently");
         }
     }
 
     @PutMapping("/tickets/{id}")
-    public ResponseEntity updateTicket(@PathVariable Long id, @RequestBody UpdateTicketInput input) {
+    public ResponseEntity updateTicket(@PathVariable Long id, @RequestBody UpdateTicketInput input,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             Authentication authentication = getContextAuthentication();
-            TicketDTO dto = ticketService.updateById(id, input, authentication);
-            return ResponseEntity.ok(dto);
+            TicketDTO dto = ticketService.updateById(id, input, authentication, TicketVersion.parseIfMatch(ifMatch));
+            MediaType mediaType = TicketMediaTypes.negotiate(accept);
+            return ResponseEntity.ok().eTag(TicketVersion.eTagOf(dto.getVersion(), mediaType)).body(dto);
         } catch (NoSuchElementException nsee) {
             return ResponseEntity.notFound().build();
         } catch (ConstraintViolationException cve) {
@@ -80,9 +265,52 @@ public class TicketController {
             return ResponseEntity.unprocessableEntity().body("agent: unknown username");
         } catch (ForbiddenException fe) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (VersionMismatchException vme) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("version: does not match If-Match");
+        } catch (ObjectOptimisticLockingFailureException oolfe) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("version: ticket was modified concurrently");
         }
     }
 
+    @PostMapping("/tickets/batch")
+    public ResponseEntity batchTickets(@RequestBody BatchTicketInput input) {
+        if (input.getIds().isEmpty() || input.getIds().size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.unprocessableEntity().body("ids: size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        try {
+            Authentication authentication = getContextAuthentication();
+            List<BatchTicketResult> results = ticketService.applyBatch(input, authentication);
+            return ResponseEntity.ok(results);
+        } catch (AgentNotFoundException anfe) {
+            return ResponseEntity.unprocessableEntity().body("agent: unknown username");
+        } catch (ObjectOptimisticLockingFailureException oolfe) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("version: ticket was modified concurrently");
+        }
+    }
+
+    @PostMapping("/tickets/import")
+    public ResponseEntity importTickets(HttpServletRequest request,
+                                        @RequestParam(defaultValue = "ndjson") String format) throws IOException {
+        try {
+            TicketFileFormat importFormat = TicketFileFormat.fromName(format);
+            ImportReport report = ticketImportService.importTickets(request.getInputStream(), importFormat);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body("format: must be ndjson or csv");
+        }
+    }
+
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private MappingJacksonValue withFields(List<TicketDTO> dtos, Set<TicketField> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(dtos);
+        value.setFilters(TicketField.filterProvider(fields));
+        return value;
+    }
+
     private Authentication getContextAuthentication() {
         return SecurityContextHolder.getContext().getAuthentication();
     }
@@ -0,0 +1,29 @@
+package com.peterith.supportticketportalserver.controller;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Ticket responses are negotiated between JSON, Smile and CBOR, so caches must key them on {@code Accept} as well.
+ * The event stream and the export pick their format otherwise and are left out.
+ */
+@Configuration
+public class VaryAcceptConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/tickets", "/tickets/**").excludePathPatterns("/tickets/events", "/tickets/export");
+    }
+}
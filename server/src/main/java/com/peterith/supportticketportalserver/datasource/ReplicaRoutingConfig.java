@@ -0,0 +1,86 @@
+package com.peterith.supportticketportalserver.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool and one read-only pool per replica, e.g.
+ * {@code datasource.replica.urls=jdbc:mysql://replica-1:3306/stp,jdbc:mysql://replica-2:3306/stp}.
+ * <p>
+ * Replicas use the primary's credentials and driver properties unless {@code datasource.replica.username} and
+ * {@code datasource.replica.password} are set.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Autowired
+    Environment environment;
+
+    @Autowired
+    DataSourceProperties dataSourceProperties;
+
+    @Value("${datasource.replica.urls}")
+    private String[] replicaUrls;
+
+    @Value("${datasource.replica.username:#{null}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:#{null}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.read-your-writes-window:5s}")
+    private Duration readYourWritesWindow;
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(ReplicaRoutingDataSource.REPLICA_PREFIX + (i + 1));
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(replicaUsername == null ? primary.getUsername() : replicaUsername);
+            replica.setPassword(replicaPassword == null ? primary.getPassword() : replicaPassword);
+            replica.setDataSourceProperties(primary.getDataSourceProperties());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, replicas, readYourWritesWindow);
+        replicaRoutingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (replicaRoutingDataSource != null) {
+            replicaRoutingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchTicketInput {
+
+    public enum Action {
+        UPDATE, DELETE
+    }
+
+    @NonNull
+    private List<Long> ids;
+
+    @NonNull
+    private Action action;
+
+    private Status status;
+
+    private Category category;
+
+    private Priority priority;
+
+    private String agent;
+}
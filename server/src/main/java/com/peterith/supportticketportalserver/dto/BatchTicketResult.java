@@ -0,0 +1,17 @@
+package com.peterith.supportticketportalserver.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchTicketResult {
+
+    public enum Outcome {
+        UPDATED, DELETED, NOT_FOUND, FORBIDDEN
+    }
+
+    private Long id;
+    private Outcome outcome;
+    private TicketDTO ticket;
+}
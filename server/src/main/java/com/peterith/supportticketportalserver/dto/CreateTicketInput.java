@@ -4,6 +4,9 @@ import com.peterith.supportticketportalserver.model.Category;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
 
 @Data
 @Builder
@@ -16,4 +19,13 @@ public class CreateTicketInput {
 
     @NonNull
     private Category category;
+
+    /**
+     * A digest of the request body, stored with a ticket created under an idempotency key so that reusing the key
+     * for a different body can be detected.
+     */
+    public String fingerprint() {
+        String raw = title + '\0' + description + '\0' + category;
+        return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+    }
 }
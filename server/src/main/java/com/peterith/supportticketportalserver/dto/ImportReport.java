@@ -0,0 +1,16 @@
+package com.peterith.supportticketportalserver.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ImportReport {
+    private long imported;
+    private long failed;
+    private List<String> errors;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,19 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.model.TicketChange;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class TicketChangeDTO {
+    private Long id;
+    private Long ticketId;
+    private TicketChange.Field field;
+    private String oldValue;
+    private String newValue;
+    private String changedBy;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,13 @@
+package com.peterith.supportticketportalserver.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TicketChangePage {
+    private List<TicketChangeDTO> changes;
+    private Long nextCursor;
+}
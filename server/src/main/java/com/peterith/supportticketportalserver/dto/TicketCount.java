@@ -0,0 +1,17 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TicketCount {
+    private Status status;
+    private Category category;
+    private Priority priority;
+    private String agent;
+    private Long count;
+}
@@ -0,0 +1,36 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class TicketCursor {
+    private LocalDateTime updatedAt;
+    private Long id;
+
+    public static TicketCursor of(TicketDTO dto) {
+        return new TicketCursor(dto.getUpdatedAt(), dto.getId());
+    }
+
+    public static TicketCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(",", 2);
+            return new TicketCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        String raw = updatedAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
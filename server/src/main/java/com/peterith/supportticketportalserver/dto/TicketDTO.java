@@ -1,16 +1,27 @@
 package com.peterith.supportticketportalserver.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.peterith.supportticketportalserver.model.Category;
 import com.peterith.supportticketportalserver.model.Priority;
 import com.peterith.supportticketportalserver.model.Status;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(TicketDTO.FIELDS_FILTER)
 public class TicketDTO {
+
+    public static final String FIELDS_FILTER = "ticketFields";
+
     private Long id;
     private String title;
     private String description;
@@ -21,4 +32,16 @@ public class TicketDTO {
     private String agent;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
+
+    /**
+     * Open tickets that look like near-duplicates, only set on the ticket returned from a create.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> duplicates;
+
+    public TicketDTO(Long id, String title, String description, Status status, Category category, Priority priority,
+                     String author, String agent, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, title, description, status, category, priority, author, agent, createdAt, updatedAt, version, null);
+    }
 }
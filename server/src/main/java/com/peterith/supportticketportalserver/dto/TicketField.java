@@ -0,0 +1,70 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link TicketDTO} properties a client can ask for with {@code fields=}. The id is always included.
+ */
+public enum TicketField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    STATUS("status"),
+    CATEGORY("category"),
+    PRIORITY("priority"),
+    AUTHOR("author"),
+    AGENT("agent"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    public static final Set<TicketField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TicketField.class));
+
+    private final String property;
+
+    TicketField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static Set<TicketField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<TicketField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            parsed.add(fromProperty(name.trim()));
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    public static TicketField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ticket field: " + property));
+    }
+
+    public static FilterProvider filterProvider(Set<TicketField> fields) {
+        SimpleBeanPropertyFilter filter = fields.containsAll(ALL)
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(
+                fields.stream().map(TicketField::getProperty).collect(Collectors.toSet()));
+
+        return new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .addFilter(TicketDTO.FIELDS_FILTER, filter);
+    }
+}
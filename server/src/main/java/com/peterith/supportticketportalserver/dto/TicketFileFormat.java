@@ -0,0 +1,20 @@
+package com.peterith.supportticketportalserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+@AllArgsConstructor
+public enum TicketFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    public static TicketFileFormat fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,29 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketFilter {
+    private Status status;
+    private Category category;
+    private Priority priority;
+    private String author;
+    private String agent;
+
+    public boolean matches(TicketDTO ticket) {
+        return (status == null || status == ticket.getStatus()) &&
+                (category == null || category == ticket.getCategory()) &&
+                (priority == null || priority == ticket.getPriority()) &&
+                (author == null || author.equals(ticket.getAuthor())) &&
+                (agent == null || agent.equals(ticket.getAgent()));
+    }
+}
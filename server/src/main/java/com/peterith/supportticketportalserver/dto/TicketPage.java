@@ -0,0 +1,13 @@
+package com.peterith.supportticketportalserver.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TicketPage {
+    private List<TicketDTO> tickets;
+    private TicketCursor nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.model.Priority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TicketSla {
+    private Long id;
+    private Priority priority;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    public static TicketSla of(TicketDTO ticket) {
+        return new TicketSla(ticket.getId(), ticket.getPriority(), ticket.getUpdatedAt(), ticket.getVersion());
+    }
+}
@@ -0,0 +1,22 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class TicketStats {
+    private long total;
+    private long unassigned;
+    private Map<Status, Long> byStatus;
+    private Map<Category, Long> byCategory;
+    private Map<Priority, Long> byPriority;
+    private Map<String, Long> byAgent;
+    private LocalDateTime reconciledAt;
+}
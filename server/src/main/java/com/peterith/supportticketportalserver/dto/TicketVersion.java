@@ -0,0 +1,50 @@
+package com.peterith.supportticketportalserver.dto;
+
+import com.peterith.supportticketportalserver.exception.VersionMismatchException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TicketVersion {
+    private Long count;
+    private LocalDateTime lastUpdatedAt;
+    private Long versionSum;
+
+    /**
+     * A strong ETag for one ticket in one representation. {@link #parseIfMatch} only reads the version back, so an
+     * ETag from any representation can be used as a precondition.
+     */
+    public static String eTagOf(Long version, MediaType mediaType) {
+        return "\"" + version + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            throw new VersionMismatchException();
+        }
+
+        String value = eTag.substring(1, eTag.length() - 1);
+        int separator = value.indexOf('-');
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException nfe) {
+            throw new VersionMismatchException();
+        }
+    }
+
+    public String toETag(String query) {
+        String raw = count + "," + lastUpdatedAt + "," + versionSum + "," + query;
+        return "\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
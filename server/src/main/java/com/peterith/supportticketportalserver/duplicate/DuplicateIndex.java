@@ -0,0 +1,300 @@
+package com.peterith.supportticketportalserver.duplicate;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Locality-sensitive hashing index of {@link MinHash} signatures over open and in-progress tickets, for spotting
+ * near-duplicates of a new ticket.
+ * <p>
+ * A signature is split into bands of consecutive rows and each band hashed into a bucket. Two tickets become
+ * candidates when they share a bucket in any band, which for 16 bands of 4 rows is likely above a Jaccard similarity
+ * of about 0.5 and unlikely well below it, so a lookup only compares against the few tickets in its own buckets
+ * rather than every open ticket. Candidates are then checked against the estimated similarity. Ticket events keep
+ * the index current; it is rebuilt from the database at start-up. Tickets removed while the rebuild runs are
+ * remembered until it finishes, so that the pages it read before the removal do not add them back.
+ */
+@Component
+public class DuplicateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateIndex.class);
+
+    private static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.OPEN, Status.IN_PROGRESS);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final long SEED = 0x5eed_d0ccL;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${tickets.duplicates.bands:16}")
+    int bands;
+
+    @Value("${tickets.duplicates.rows:4}")
+    int rows;
+
+    @Value("${tickets.duplicates.shingle-length:5}")
+    int shingleLength;
+
+    @Value("${tickets.duplicates.threshold:0.5}")
+    double threshold;
+
+    private MinHash minHash;
+    private final Map<Long, IndexedTicket> tickets = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+
+    @PostConstruct
+    void init() {
+        minHash = new MinHash(bands * rows, shingleLength, SEED);
+
+        Gauge.builder("tickets.duplicates.indexed", this, DuplicateIndex::size)
+                .description("Tickets in the near-duplicate index")
+                .register(meterRegistry);
+        Gauge.builder("tickets.duplicates.buckets", this, DuplicateIndex::bucketCount)
+                .description("Non-empty buckets in the near-duplicate index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ids of indexed tickets whose estimated similarity to the given text is at least the threshold, most similar
+     * first.
+     */
+    public List<Long> findCandidates(String title, String description, int limit) {
+        int[] signature = minHash.signature(title, description);
+        long[] keys = bandKeys(signature);
+        List<Candidate> candidates = new ArrayList<>();
+
+        synchronized (this) {
+            Set<Long> seen = new HashSet<>();
+
+            for (long key : keys) {
+                for (Long id : buckets.getOrDefault(key, Set.of())) {
+                    if (seen.add(id)) {
+                        double similarity = MinHash.similarity(signature, tickets.get(id).signature);
+                        if (similarity >= threshold) {
+                            candidates.add(new Candidate(id, similarity));
+                        }
+                    }
+                }
+            }
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparingDouble((Candidate candidate) -> candidate.similarity).reversed()
+                        .thenComparing(candidate -> candidate.id))
+                .limit(limit)
+                .map(candidate -> candidate.id)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEvent event) {
+        TicketDTO ticket = event.getTicket();
+
+        if (event.getType() == TicketEvent.Type.DELETED) {
+            remove(ticket.getId());
+        } else {
+            index(ticket);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding = true;
+
+        try {
+            long lastId = 0;
+            List<TicketDTO> batch;
+
+            do {
+                batch = ticketRepository.findDTOByStatusInAndIdGreaterThan(ACTIVE_STATUSES, lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+                for (TicketDTO ticket : batch) {
+                    index(ticket, true);
+                    lastId = ticket.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            logger.info("Indexed {} open tickets for duplicate detection", size());
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild duplicate index", e);
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+    }
+
+    /**
+     * Indexes an open or in-progress ticket and drops any other. Text is only re-hashed when it changed, and events
+     * older than what is indexed are ignored.
+     */
+    public void index(TicketDTO ticket) {
+        index(ticket, false);
+    }
+
+    /**
+     * Indexes the ticket, unless it comes from a rebuild page and was removed since that page was read.
+     */
+    private void index(TicketDTO ticket, boolean rebuilt) {
+        if (!ACTIVE_STATUSES.contains(ticket.getStatus())) {
+            remove(ticket.getId());
+            return;
+        }
+
+        synchronized (this) {
+            if (rebuilt && removedDuringRebuild.contains(ticket.getId())) {
+                return;
+            }
+
+            IndexedTicket existing = tickets.get(ticket.getId());
+
+            if (existing != null) {
+                if (existing.updatedAt.isAfter(ticket.getUpdatedAt())) {
+                    return;
+                }
+                if (existing.textHash == textHash(ticket)) {
+                    tickets.put(ticket.getId(), new IndexedTicket(existing, ticket.getUpdatedAt()));
+                    return;
+                }
+            }
+        }
+
+        int[] signature = minHash.signature(ticket.getTitle(), ticket.getDescription());
+        IndexedTicket indexed = new IndexedTicket(signature, bandKeys(signature), textHash(ticket),
+                ticket.getUpdatedAt());
+
+        synchronized (this) {
+            if (rebuilt && removedDuringRebuild.contains(ticket.getId())) {
+                return;
+            }
+
+            IndexedTicket existing = tickets.get(ticket.getId());
+
+            if (existing != null) {
+                if (existing.updatedAt.isAfter(ticket.getUpdatedAt())) {
+                    return;
+                }
+                removeFromBuckets(ticket.getId(), existing);
+            }
+
+            tickets.put(ticket.getId(), indexed);
+            for (long key : indexed.bandKeys) {
+                buckets.computeIfAbsent(key, k -> new HashSet<>(2)).add(ticket.getId());
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (rebuilding) {
+            removedDuringRebuild.add(id);
+        }
+
+        IndexedTicket existing = tickets.remove(id);
+
+        if (existing != null) {
+            removeFromBuckets(id, existing);
+        }
+    }
+
+    public synchronized int size() {
+        return tickets.size();
+    }
+
+    public synchronized int bucketCount() {
+        return buckets.size();
+    }
+
+    private void removeFromBuckets(Long id, IndexedTicket indexed) {
+        for (long key : indexed.bandKeys) {
+            Set<Long> bucket = buckets.get(key);
+
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * One key per band, with the band number folded in so that equal rows in different bands do not collide.
+     */
+    private long[] bandKeys(int[] signature) {
+        long[] keys = new long[bands];
+
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = band * rows; row < (band + 1) * rows; row++) {
+                key = key * 0x100000001b3L + signature[row];
+            }
+            keys[band] = key;
+        }
+
+        return keys;
+    }
+
+    private static int textHash(TicketDTO ticket) {
+        return 31 * String.valueOf(ticket.getTitle()).hashCode() + String.valueOf(ticket.getDescription()).hashCode();
+    }
+
+    private static class IndexedTicket {
+        private final int[] signature;
+        private final long[] bandKeys;
+        private final int textHash;
+        private final LocalDateTime updatedAt;
+
+        private IndexedTicket(int[] signature, long[] bandKeys, int textHash, LocalDateTime updatedAt) {
+            this.signature = signature;
+            this.bandKeys = bandKeys;
+            this.textHash = textHash;
+            this.updatedAt = updatedAt;
+        }
+
+        private IndexedTicket(IndexedTicket indexed, LocalDateTime updatedAt) {
+            this(indexed.signature, indexed.bandKeys, indexed.textHash, updatedAt);
+        }
+    }
+
+    private static class Candidate {
+        private final Long id;
+        private final double similarity;
+
+        private Candidate(Long id, double similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+    }
+}
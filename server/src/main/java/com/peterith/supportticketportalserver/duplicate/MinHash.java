@@ -0,0 +1,108 @@
+package com.peterith.supportticketportalserver.duplicate;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over the character shingles of a ticket's title and description.
+ * <p>
+ * Text is lower-cased and every run of non-alphanumeric characters collapsed to one space before shingling, so that
+ * punctuation and spacing do not tell two reports apart. Each shingle is hashed once and then permuted with a
+ * multiply-shift hash per signature row; the fraction of rows two signatures agree on estimates the Jaccard
+ * similarity of their shingle sets.
+ */
+public class MinHash {
+
+    private final int shingleLength;
+    private final long[] multipliers;
+    private final long[] increments;
+
+    public MinHash(int signatureLength, int shingleLength, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.shingleLength = shingleLength;
+        this.multipliers = new long[signatureLength];
+        this.increments = new long[signatureLength];
+
+        for (int i = 0; i < signatureLength; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    public int signatureLength() {
+        return multipliers.length;
+    }
+
+    public int[] signature(String title, String description) {
+        String text = normalise(title + " " + (description == null ? "" : description));
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        if (text.isEmpty()) {
+            return signature;
+        }
+
+        int length = Math.min(shingleLength, text.length());
+        for (int start = 0; start + length <= text.length(); start++) {
+            long shingle = mix(hash(text, start, length));
+
+            for (int i = 0; i < signature.length; i++) {
+                int permuted = (int) ((shingle * multipliers[i] + increments[i]) >>> 33);
+                if (permuted < signature[i]) {
+                    signature[i] = permuted;
+                }
+            }
+        }
+
+        return signature;
+    }
+
+    public static double similarity(int[] signature, int[] other) {
+        int matches = 0;
+        for (int i = 0; i < signature.length; i++) {
+            if (signature[i] == other[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / signature.length;
+    }
+
+    static String normalise(String text) {
+        StringBuilder normalised = new StringBuilder(text.length());
+        boolean separator = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && normalised.length() > 0) {
+                    normalised.append(' ');
+                }
+                normalised.append(c);
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+
+        return normalised.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static long hash(String text, int start, int length) {
+        long hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = hash * 31 + text.charAt(i);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,22 @@
+package com.peterith.supportticketportalserver.event;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TicketEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Type type;
+    private TicketDTO ticket;
+    private TicketDTO previous;
+
+    public TicketEvent(Type type, TicketDTO ticket) {
+        this(type, ticket, null);
+    }
+}
@@ -0,0 +1,283 @@
+package com.peterith.supportticketportalserver.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed ticket changes out to server-sent event subscribers.
+ * <p>
+ * Every change gets an id from a counter seeded with the start-up time, so ids keep increasing across restarts. The
+ * latest changes are kept in a bounded replay buffer for clients that reconnect with {@code Last-Event-ID}. A client
+ * whose id is no longer buffered receives a {@code reset} event and should reload. Each subscriber has its own
+ * bounded queue, drained by a small sender pool; a subscriber whose queue overflows is disconnected rather than
+ * allowed to hold up everyone else, and catches up from the replay buffer when it reconnects. The replay itself is sent
+ * ahead of that queue and does not count against it, since it only refers to entries the buffer already holds.
+ */
+@Component
+public class TicketEventStream {
+
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketEventStream.class);
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${tickets.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${tickets.events.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+
+    @Value("${tickets.events.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${tickets.events.timeout:0}")
+    private long timeout;
+
+    private final ArrayDeque<Entry> replayBuffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger droppedSubscribers = new AtomicInteger();
+
+    private long nextId = System.currentTimeMillis() * 1000;
+    private ExecutorService senderExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        senderExecutor = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ticket-event-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senderExecutor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event.getTicket());
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialise ticket event for ticket {}", event.getTicket().getId(), e);
+            return;
+        }
+
+        synchronized (this) {
+            Entry entry = new Entry(nextId++, event.getType().name().toLowerCase(Locale.ROOT), data,
+                    event.getTicket(), event.getPrevious());
+
+            replayBuffer.addLast(entry);
+            if (replayBuffer.size() > replaySize) {
+                replayBuffer.removeFirst();
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                if (entry.matches(subscriber.filter)) {
+                    subscriber.offer(entry);
+                }
+            }
+        }
+    }
+
+    public SseEmitter subscribe(TicketFilter filter, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout > 0 ? timeout : null);
+        Subscriber subscriber;
+
+        synchronized (this) {
+            List<Entry> missed = new ArrayList<>();
+            for (Entry entry : replay(lastEventId)) {
+                if (entry == Entry.RESET || entry.matches(filter)) {
+                    missed.add(entry);
+                }
+            }
+            subscriber = new Subscriber(emitter, filter, missed);
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.startDraining();
+
+        return emitter;
+    }
+
+    @Scheduled(fixedRateString = "${tickets.events.heartbeat-interval:15000}")
+    public void sendHeartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(Entry.HEARTBEAT));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public int getDroppedSubscriberCount() {
+        return droppedSubscribers.get();
+    }
+
+    private List<Entry> replay(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException nfe) {
+            return List.of(Entry.RESET);
+        }
+
+        long firstBufferedId = replayBuffer.isEmpty() ? nextId : replayBuffer.getFirst().id;
+        if (lastId + 1 < firstBufferedId || lastId >= nextId) {
+            return List.of(Entry.RESET);
+        }
+
+        List<Entry> missed = new ArrayList<>();
+        for (Entry entry : replayBuffer) {
+            if (entry.id > lastId) {
+                missed.add(entry);
+            }
+        }
+        return missed;
+    }
+
+    private static class Entry {
+
+        private static final Entry HEARTBEAT = new Entry(-1, null, null, null, null);
+        private static final Entry RESET = new Entry(-1, RESET_EVENT, "{}", null, null);
+
+        private final long id;
+        private final String name;
+        private final String data;
+        private final TicketDTO ticket;
+        private final TicketDTO previous;
+
+        private Entry(long id, String name, String data, TicketDTO ticket, TicketDTO previous) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.ticket = ticket;
+            this.previous = previous;
+        }
+
+        private boolean matches(TicketFilter filter) {
+            return filter.matches(ticket) || (previous != null && filter.matches(previous));
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (id >= 0) {
+                event.id(Long.toString(id));
+            }
+            return event.name(name).data(data);
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final TicketFilter filter;
+        private final Queue<Entry> replay;
+        private final BlockingQueue<Entry> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, TicketFilter filter, List<Entry> replay) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.replay = new ConcurrentLinkedQueue<>(replay);
+            this.queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        }
+
+        private void offer(Entry entry) {
+            if (closed) {
+                return;
+            }
+
+            if (!queue.offer(entry)) {
+                droppedSubscribers.incrementAndGet();
+                logger.debug("Disconnecting slow ticket event subscriber after {} queued events", queue.size());
+                close();
+                emitter.complete();
+                return;
+            }
+
+            startDraining();
+        }
+
+        private void startDraining() {
+            if (draining.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Entry entry;
+                while (!closed && (entry = next()) != null) {
+                    emitter.send(entry.toSseEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+
+            if (!closed && !(replay.isEmpty() && queue.isEmpty()) && draining.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        private Entry next() {
+            Entry entry = replay.poll();
+            return entry != null ? entry : queue.poll();
+        }
+
+        private void close() {
+            closed = true;
+            replay.clear();
+            queue.clear();
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.peterith.supportticketportalserver.exception;
+
+public class VersionMismatchException extends RuntimeException {
+}
@@ -0,0 +1,206 @@
+package com.peterith.supportticketportalserver.history;
+
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.model.TicketChange;
+import com.peterith.supportticketportalserver.repository.TicketChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records field-level ticket changes without holding up the update that caused them.
+ * <p>
+ * Diffs are computed after commit and put on a bounded queue, which a single writer thread drains in batches. When
+ * the queue is full, the updating thread waits up to {@code tickets.history.offer-timeout} for room and the change is
+ * dropped after that; the waiting time and the drops are published as metrics.
+ */
+@Component
+public class TicketHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketHistoryWriter.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    @Autowired
+    TicketChangeRepository ticketChangeRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${tickets.history.queue-size:10000}")
+    private int queueSize;
+
+    @Value("${tickets.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${tickets.history.offer-timeout:50ms}")
+    private Duration offerTimeout;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Lock drainedLock = new ReentrantLock();
+    private final Condition drained = drainedLock.newCondition();
+
+    private BlockingQueue<TicketChange> queue;
+    private Thread writerThread;
+    private volatile boolean running = true;
+
+    private Timer offerWaitTimer;
+    private Timer writeTimer;
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+
+        Gauge.builder("tickets.history.queue.size", queue, Collection::size)
+                .description("Ticket changes waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("tickets.history.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in the ticket change queue")
+                .register(meterRegistry);
+        offerWaitTimer = Timer.builder("tickets.history.offer.wait")
+                .description("Time updates spent waiting for room in a full ticket change queue")
+                .register(meterRegistry);
+        writeTimer = Timer.builder("tickets.history.write")
+                .description("Time to write one batch of ticket changes")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("tickets.history.changes").tag("outcome", "written").register(meterRegistry);
+        droppedCounter = Counter.builder("tickets.history.changes").tag("outcome", "dropped").register(meterRegistry);
+        failedCounter = Counter.builder("tickets.history.changes").tag("outcome", "failed").register(meterRegistry);
+
+        writerThread = new Thread(this::run, "ticket-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEvent event) {
+        if (event.getType() != TicketEvent.Type.UPDATED || event.getPrevious() == null) {
+            return;
+        }
+
+        for (TicketChange change : TicketChange.diff(event.getPrevious(), event.getTicket(), getCurrentUsername())) {
+            enqueue(change);
+        }
+    }
+
+    /**
+     * Waits until every change queued so far has been written or given up on.
+     */
+    public void flush() throws InterruptedException {
+        drainedLock.lock();
+        try {
+            while (pending.get() > 0 && writerThread.isAlive()) {
+                drained.await(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            drainedLock.unlock();
+        }
+    }
+
+    void enqueue(TicketChange change) {
+        pending.incrementAndGet();
+        if (queue.offer(change)) {
+            return;
+        }
+
+        boolean accepted = false;
+        long start = System.nanoTime();
+        try {
+            accepted = queue.offer(change, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            offerWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!accepted) {
+            release(1);
+            droppedCounter.increment();
+            logger.debug("Dropped {} change of ticket {}, history queue is full", change.getField(), change.getTicketId());
+        }
+    }
+
+    private void run() {
+        List<TicketChange> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                TicketChange first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TicketChange> batch) {
+        try {
+            writeTimer.record(() -> ticketChangeRepository.saveAll(batch));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            logger.error("Failed to write {} ticket changes", batch.size(), e);
+        } finally {
+            release(batch.size());
+        }
+    }
+
+    private void release(int changes) {
+        if (pending.addAndGet(-changes) > 0) {
+            return;
+        }
+
+        drainedLock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            drainedLock.unlock();
+        }
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,116 @@
+package com.peterith.supportticketportalserver.idempotency;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyInUseException;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyReusedException;
+import com.peterith.supportticketportalserver.service.TicketService;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Returns the ticket already created for a (user, {@code Idempotency-Key}) so that a retried create does not insert
+ * another one.
+ * <p>
+ * The key is stored on the ticket, unique per author, so a retry finds it on any instance and after a restart; it is
+ * kept for as long as the ticket. A create that loses the race to insert the same key on another instance reads the
+ * winner's ticket back from the primary, or gets a conflict to retry if that ticket cannot be read. Within one
+ * instance, a duplicate that arrives while the first request is in flight waits for its result rather than racing
+ * it. A create that fails stores nothing, so the client can retry it.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Value("${tickets.idempotency.wait-timeout:30s}")
+    private Duration waitTimeout;
+
+    private final ConcurrentMap<Key, Entry> inFlight = new ConcurrentHashMap<>();
+
+    public TicketDTO create(String username, String idempotencyKey, CreateTicketInput input,
+                            Supplier<TicketDTO> create) {
+        Key key = new Key(username, idempotencyKey);
+        Entry entry = new Entry(input);
+        Entry existing = inFlight.putIfAbsent(key, entry);
+
+        if (existing != null) {
+            if (!existing.input.equals(input)) {
+                throw new IdempotencyKeyReusedException();
+            }
+            return await(existing.result);
+        }
+
+        try {
+            TicketDTO dto = findOrCreate(username, idempotencyKey, input, create);
+            entry.result.complete(dto);
+            return dto;
+        } catch (RuntimeException e) {
+            entry.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, entry);
+        }
+    }
+
+    private TicketDTO findOrCreate(String username, String idempotencyKey, CreateTicketInput input,
+                                   Supplier<TicketDTO> create) {
+        return ticketService.findByIdempotencyKey(username, idempotencyKey, input).orElseGet(() -> {
+            try {
+                return create.get();
+            } catch (DataIntegrityViolationException e) {
+                return ticketService.findByIdempotencyKey(username, idempotencyKey, input)
+                        .orElseThrow(IdempotencyKeyInUseException::new);
+            }
+        });
+    }
+
+    private TicketDTO await(CompletableFuture<TicketDTO> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInUseException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException();
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String username;
+        private final String idempotencyKey;
+    }
+
+    private static class Entry {
+
+        private final CreateTicketInput input;
+        private final CompletableFuture<TicketDTO> result = new CompletableFuture<>();
+
+        private Entry(CreateTicketInput input) {
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.peterith.supportticketportalserver.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class PersistenceMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final double[] COUNT_BUCKETS = {1, 2, 3, 5, 10, 20, 50, 100};
+
+    private final MeterRegistry meterRegistry;
+
+    public PersistenceMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PersistenceRequestCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        PersistenceRequestCounter.reset();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                "uri", pattern == null ? "UNKNOWN" : pattern.toString(),
+                "status", Integer.toString(response.getStatus()));
+
+        summary("http.server.requests.statements", "SQL statements prepared per request", tags)
+                .record(PersistenceRequestCounter.getStatementCount());
+        summary("http.server.requests.entity.loads", "Entities loaded per request", tags)
+                .record(PersistenceRequestCounter.getEntityLoadCount());
+        PersistenceRequestCounter.reset();
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .serviceLevelObjectives(COUNT_BUCKETS)
+                .register(meterRegistry);
+    }
+}
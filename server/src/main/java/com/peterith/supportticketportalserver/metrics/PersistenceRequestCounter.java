@@ -0,0 +1,45 @@
+package com.peterith.supportticketportalserver.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Counts the SQL statements prepared and the entities loaded on the current thread, so that they can be attributed
+ * to the request being served.
+ */
+public class PersistenceRequestCounter extends EmptyInterceptor implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    public static void reset() {
+        long[] counts = COUNTS.get();
+        counts[STATEMENTS] = 0;
+        counts[ENTITY_LOADS] = 0;
+    }
+
+    public static long getStatementCount() {
+        return COUNTS.get()[STATEMENTS];
+    }
+
+    public static long getEntityLoadCount() {
+        return COUNTS.get()[ENTITY_LOADS];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get()[STATEMENTS]++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTS.get()[ENTITY_LOADS]++;
+        return false;
+    }
+}
@@ -7,8 +7,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -20,10 +18,20 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "ticket_updated_at_id_idx", columnList = "updatedAt DESC, id DESC"),
+        @Index(name = "ticket_status_updated_at_id_idx", columnList = "status, updatedAt DESC, id DESC"),
+        @Index(name = "ticket_status_priority_updated_at_id_idx",
+                columnList = "status, priority, updatedAt DESC, id DESC"),
+        @Index(name = "ticket_agent_id_updated_at_id_idx", columnList = "agent_id, updatedAt DESC, id DESC"),
+        @Index(name = "ticket_author_id_updated_at_id_idx", columnList = "author_id, updatedAt DESC, id DESC"),
+        @Index(name = "ticket_author_id_idempotency_key_idx", columnList = "author_id, idempotencyKey", unique = true)
+})
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_sequence")
+    @SequenceGenerator(name = "ticket_sequence", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -55,14 +63,20 @@ public class Ticket {
     @ManyToOne
     private User agent;
 
-    @CreationTimestamp
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    private String idempotencyKey;
+
+    @Column(length = 32)
+    private String idempotencyFingerprint;
+
     public Ticket(CreateTicketInput input, User author) {
         this.title = input.getTitle();
         this.description = input.getDescription();
@@ -70,6 +84,24 @@ public class Ticket {
         this.author = author;
     }
 
+    /**
+     * Keeps timestamps that were set before the first insert, so that imported tickets keep their age.
+     */
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public void update(UpdateTicketInput input) {
         this.title = input.getTitle();
         this.description = input.getDescription();
@@ -94,6 +126,7 @@ public class Ticket {
                 .author(author.getUsername())
                 .createdAt(createdAt)
                 .updatedAt(updatedAt)
+                .version(version)
                 .build();
 
         if (agent != null) {
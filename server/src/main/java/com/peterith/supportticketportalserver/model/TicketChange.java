@@ -0,0 +1,95 @@
+package com.peterith.supportticketportalserver.model;
+
+import com.peterith.supportticketportalserver.dto.TicketChangeDTO;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "ticket_change_ticket_id_id_idx", columnList = "ticketId, id"))
+public class TicketChange {
+
+    public enum Field {
+        TITLE, STATUS, CATEGORY, PRIORITY, AGENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_change_sequence")
+    @SequenceGenerator(name = "ticket_change_sequence", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @NotNull
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Field field;
+
+    @Column(length = 100)
+    private String oldValue;
+
+    @Column(length = 100)
+    private String newValue;
+
+    @Column(length = 50)
+    private String changedBy;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public static List<TicketChange> diff(TicketDTO previous, TicketDTO current, String changedBy) {
+        List<TicketChange> changes = new ArrayList<>();
+        addIfChanged(changes, Field.TITLE, previous, current, TicketDTO::getTitle, changedBy);
+        addIfChanged(changes, Field.STATUS, previous, current, TicketDTO::getStatus, changedBy);
+        addIfChanged(changes, Field.CATEGORY, previous, current, TicketDTO::getCategory, changedBy);
+        addIfChanged(changes, Field.PRIORITY, previous, current, TicketDTO::getPriority, changedBy);
+        addIfChanged(changes, Field.AGENT, previous, current, TicketDTO::getAgent, changedBy);
+        return changes;
+    }
+
+    private static void addIfChanged(List<TicketChange> changes, Field field, TicketDTO previous, TicketDTO current,
+                                     Function<TicketDTO, Object> getter, String changedBy) {
+        Object oldValue = getter.apply(previous);
+        Object newValue = getter.apply(current);
+
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(TicketChange.builder()
+                    .ticketId(current.getId())
+                    .field(field)
+                    .oldValue(oldValue == null ? null : oldValue.toString())
+                    .newValue(newValue == null ? null : newValue.toString())
+                    .changedBy(changedBy)
+                    .changedAt(current.getUpdatedAt())
+                    .build());
+        }
+    }
+
+    public TicketChangeDTO toDTO() {
+        return TicketChangeDTO.builder()
+                .id(id)
+                .ticketId(ticketId)
+                .field(field)
+                .oldValue(oldValue)
+                .newValue(newValue)
+                .changedBy(changedBy)
+                .changedAt(changedAt)
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.model.TicketChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface TicketChangeRepository extends JpaRepository<TicketChange, Long> {
+
+    @Query("SELECT c FROM TicketChange c " +
+            "WHERE c.ticketId = :ticketId AND (:id IS NULL OR c.id < :id) " +
+            "ORDER BY c.id DESC")
+    List<TicketChange> findPage(@Param("ticketId") Long ticketId, @Param("id") Long id, Pageable pageable);
+}
@@ -1,9 +1,66 @@
 package com.peterith.supportticketportalserver.repository;
 
+import com.peterith.supportticketportalserver.dto.TicketCount;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketSla;
+import com.peterith.supportticketportalserver.model.Status;
 import com.peterith.supportticketportalserver.model.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+@Transactional(readOnly = true)
+public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket>,
+        TicketRepositoryCustom {
+
+    String SELECT_TICKET_DTO = "SELECT new com.peterith.supportticketportalserver.dto.TicketDTO(" +
+            "t.id, t.title, t.description, t.status, t.category, t.priority, au.username, ag.username, " +
+            "t.createdAt, t.updatedAt, t.version) " +
+            "FROM Ticket t JOIN t.author au LEFT JOIN t.agent ag ";
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @Query(SELECT_TICKET_DTO + "ORDER BY t.id")
+    List<TicketDTO> findAllDTO();
+
+    @Query(SELECT_TICKET_DTO + "WHERE t.id = :id")
+    Optional<TicketDTO> findDTOById(@Param("id") Long id);
+
+    Optional<Ticket> findByAuthorUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    @Query("SELECT t.version FROM Ticket t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.peterith.supportticketportalserver.dto.TicketCount(" +
+            "t.status, t.category, t.priority, ag.username, COUNT(t)) " +
+            "FROM Ticket t LEFT JOIN t.agent ag " +
+            "GROUP BY t.status, t.category, t.priority, ag.username")
+    List<TicketCount> countByStatusAndCategoryAndPriorityAndAgent();
+
+    @Query("SELECT new com.peterith.supportticketportalserver.dto.TicketSla(t.id, t.priority, t.updatedAt, " +
+            "t.version) " +
+            "FROM Ticket t WHERE t.status IN :statuses")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    Stream<TicketSla> streamSlaByStatusIn(@Param("statuses") Collection<Status> statuses);
+
+    @Query(SELECT_TICKET_DTO + "WHERE t.id > :id ORDER BY t.id")
+    List<TicketDTO> findDTOByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_TICKET_DTO + "WHERE t.status IN :statuses AND t.id > :id ORDER BY t.id")
+    List<TicketDTO> findDTOByStatusInAndIdGreaterThan(@Param("statuses") Collection<Status> statuses,
+                                                      @Param("id") Long id, Pageable pageable);
 }
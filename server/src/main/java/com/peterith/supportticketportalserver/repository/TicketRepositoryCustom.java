@@ -0,0 +1,26 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import com.peterith.supportticketportalserver.dto.TicketVersion;
+import com.peterith.supportticketportalserver.model.Ticket;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TicketRepositoryCustom {
+
+    List<TicketDTO> findDTOPage(Specification<Ticket> specification, int limit);
+
+    /**
+     * Selects only the requested columns, plus the id and updatedAt needed for the cursor. The author and agent
+     * joins are skipped unless those fields are requested.
+     */
+    List<TicketDTO> findDTOPage(Specification<Ticket> specification, Set<TicketField> fields, int limit);
+
+    TicketVersion findVersion(Specification<Ticket> specification);
+
+    Stream<TicketDTO> streamDTO(Specification<Ticket> specification);
+}
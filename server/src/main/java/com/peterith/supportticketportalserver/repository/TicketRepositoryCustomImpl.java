@@ -0,0 +1,163 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import com.peterith.supportticketportalserver.dto.TicketVersion;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.model.Ticket;
+import com.peterith.supportticketportalserver.model.User;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Transactional(readOnly = true)
+public class TicketRepositoryCustomImpl implements TicketRepositoryCustom {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    public List<TicketDTO> findDTOPage(Specification<Ticket> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketDTO> query = cb.createQuery(TicketDTO.class);
+        Root<Ticket> root = selectDTO(query, specification);
+        query.orderBy(cb.desc(root.get("updatedAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<TicketDTO> findDTOPage(Specification<Ticket> specification, Set<TicketField> fields, int limit) {
+        if (fields.containsAll(TicketField.ALL)) {
+            return findDTOPage(specification, limit);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ticket> root = query.from(Ticket.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias(TicketField.ID.getProperty()));
+        selections.add(root.get("updatedAt").alias(TicketField.UPDATED_AT.getProperty()));
+        for (TicketField field : fields) {
+            switch (field) {
+                case ID:
+                case UPDATED_AT:
+                    break;
+                case AUTHOR:
+                    selections.add(root.join("author").get("username").alias(field.getProperty()));
+                    break;
+                case AGENT:
+                    selections.add(root.join("agent", JoinType.LEFT).get("username").alias(field.getProperty()));
+                    break;
+                default:
+                    selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+            }
+        }
+
+        query.multiselect(selections);
+        where(query, root, specification);
+        query.orderBy(cb.desc(root.get("updatedAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultStream()
+                .map(tuple -> toDTO(tuple, fields))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public TicketVersion findVersion(Specification<Ticket> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketVersion> query = cb.createQuery(TicketVersion.class);
+        Root<Ticket> root = query.from(Ticket.class);
+
+        query.select(cb.construct(TicketVersion.class,
+                cb.count(root),
+                cb.greatest(root.<LocalDateTime>get("updatedAt")),
+                cb.sum(root.<Long>get("version"))));
+        where(query, root, specification);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public Stream<TicketDTO> streamDTO(Specification<Ticket> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketDTO> query = cb.createQuery(TicketDTO.class);
+        Root<Ticket> root = selectDTO(query, specification);
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, TicketRepository.EXPORT_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private Root<Ticket> selectDTO(CriteriaQuery<TicketDTO> query, Specification<Ticket> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Root<Ticket> root = query.from(Ticket.class);
+        Join<Ticket, User> author = root.join("author");
+        Join<Ticket, User> agent = root.join("agent", JoinType.LEFT);
+
+        query.select(cb.construct(TicketDTO.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("status"),
+                root.get("category"),
+                root.get("priority"),
+                author.get("username"),
+                agent.get("username"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version")));
+        where(query, root, specification);
+
+        return root;
+    }
+
+    private static TicketDTO toDTO(Tuple tuple, Set<TicketField> fields) {
+        return TicketDTO.builder()
+                .id(tuple.get(TicketField.ID.getProperty(), Long.class))
+                .title(get(tuple, fields, TicketField.TITLE, String.class))
+                .description(get(tuple, fields, TicketField.DESCRIPTION, String.class))
+                .status(get(tuple, fields, TicketField.STATUS, Status.class))
+                .category(get(tuple, fields, TicketField.CATEGORY, Category.class))
+                .priority(get(tuple, fields, TicketField.PRIORITY, Priority.class))
+                .author(get(tuple, fields, TicketField.AUTHOR, String.class))
+                .agent(get(tuple, fields, TicketField.AGENT, String.class))
+                .createdAt(get(tuple, fields, TicketField.CREATED_AT, LocalDateTime.class))
+                .updatedAt(tuple.get(TicketField.UPDATED_AT.getProperty(), LocalDateTime.class))
+                .version(get(tuple, fields, TicketField.VERSION, Long.class))
+                .build();
+    }
+
+    private static <T> T get(Tuple tuple, Set<TicketField> fields, TicketField field, Class<T> type) {
+        return fields.contains(field) ? tuple.get(field.getProperty(), type) : null;
+    }
+
+    private void where(CriteriaQuery<?> query, Root<Ticket> root, Specification<Ticket> specification) {
+        Predicate predicate = specification.toPredicate(root, query, entityManager.getCriteriaBuilder());
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.dto.TicketCursor;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.model.Ticket;
+import com.peterith.supportticketportalserver.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Ticket predicates that are only added when their value is present, so that filtered queries contain nothing but
+ * plain equality and range conditions the indexes on {@link Ticket} can serve.
+ */
+public final class TicketSpecifications {
+
+    private TicketSpecifications() {
+    }
+
+    public static Specification<Ticket> matching(TicketFilter filter) {
+        return Specification.where(hasStatus(filter.getStatus()))
+                .and(hasCategory(filter.getCategory()))
+                .and(hasPriority(filter.getPriority()))
+                .and(hasAuthor(filter.getAuthor()))
+                .and(hasAgent(filter.getAgent()));
+    }
+
+    public static Specification<Ticket> hasStatus(Status status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Ticket> hasCategory(Category category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Ticket> hasPriority(Priority priority) {
+        return priority == null ? null : (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Ticket> hasAuthor(String username) {
+        return username == null ? null : (root, query, cb) -> cb.equal(root.get("author").get("id"),
+                userIdOf(username, query, cb));
+    }
+
+    public static Specification<Ticket> hasAgent(String username) {
+        return username == null ? null : (root, query, cb) -> cb.equal(root.get("agent").get("id"),
+                userIdOf(username, query, cb));
+    }
+
+    public static Specification<Ticket> hasIdIn(Collection<Long> ids) {
+        return ids == null ? null : (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Ticket> updatedSince(LocalDateTime since) {
+        return since == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), since);
+    }
+
+    /**
+     * Tickets after the cursor in {@code updatedAt DESC, id DESC} order.
+     */
+    public static Specification<Ticket> after(TicketCursor cursor) {
+        return cursor == null ? null : (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("updatedAt"), cursor.getUpdatedAt()),
+                cb.and(cb.equal(root.get("updatedAt"), cursor.getUpdatedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    /**
+     * Looks the user up in a scalar subquery, so that the ticket side is a plain foreign key comparison.
+     */
+    private static Subquery<Long> userIdOf(String username, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Subquery<Long> userId = query.subquery(Long.class);
+        Root<User> user = userId.from(User.class);
+        return userId.select(user.get("id")).where(cb.equal(user.get("username"), username));
+    }
+}
@@ -1,12 +1,57 @@
 package com.peterith.supportticketportalserver.repository;
 
+import com.peterith.supportticketportalserver.model.Role;
 import com.peterith.supportticketportalserver.model.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String USERS_CACHE = "users";
+
+    @Cacheable(cacheNames = USERS_CACHE, unless = "#result == null")
     Optional<User> findByUsername(String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.role = :role")
+    List<String> findUsernameByRole(@Param("role") Role role);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#p0.username")
+    <S extends User> S save(S user);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#p0.username")
+    <S extends User> S saveAndFlush(S user);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, allEntries = true)
+    <S extends User> List<S> saveAll(Iterable<S> users);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#p0.username")
+    void delete(User user);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, allEntries = true)
+    void deleteAll();
 }
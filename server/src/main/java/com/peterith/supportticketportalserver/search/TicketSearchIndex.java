@@ -0,0 +1,329 @@
+package com.peterith.supportticketportalserver.search;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over ticket titles and descriptions.
+ * <p>
+ * Query terms are matched conjunctively and ranked with BM25; the last term is also matched as a prefix so that
+ * search-as-you-type works. Writers are serialised, readers never block.
+ */
+@Component
+public class TicketSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final float TITLE_BOOST = 2.0f;
+    private static final float PREFIX_MATCH_WEIGHT = 0.8f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    private final ConcurrentNavigableMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedTicket> documents = new ConcurrentHashMap<>();
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile double totalLength;
+    private volatile boolean rebuilding;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEvent event) {
+        if (event.getType() == TicketEvent.Type.DELETED) {
+            remove(event.getTicket().getId());
+        } else {
+            index(event.getTicket());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public synchronized void index(TicketDTO ticket) {
+        IndexedTicket existing = documents.get(ticket.getId());
+
+        if (existing != null) {
+            if (existing.updatedAt.isAfter(ticket.getUpdatedAt())) {
+                return;
+            }
+            removePostings(existing);
+        }
+
+        IndexedTicket document = new IndexedTicket(ticket, termFrequencies(ticket));
+        document.termFrequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(document.id, frequency));
+        documents.put(document.id, document);
+        totalLength += document.length;
+    }
+
+    public synchronized void remove(Long id) {
+        if (rebuilding) {
+            removedDuringRebuild.add(id);
+        }
+
+        IndexedTicket existing = documents.remove(id);
+
+        if (existing != null) {
+            removePostings(existing);
+        }
+    }
+
+    public List<Long> search(String query, TicketFilter filter, int limit) {
+        List<String> terms = tokenize(query).distinct().collect(Collectors.toList());
+
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        int documentCount = documents.size();
+        double averageLength = documentCount == 0 ? 1 : Math.max(totalLength / documentCount, 1);
+        List<List<Expansion>> expansions = new ArrayList<>();
+
+        for (int i = 0; i < terms.size(); i++) {
+            List<Expansion> termExpansions = expand(terms.get(i), i == terms.size() - 1, documentCount);
+
+            if (termExpansions.isEmpty()) {
+                return List.of();
+            }
+            expansions.add(termExpansions);
+        }
+
+        expansions.sort(Comparator.comparingLong(TicketSearchIndex::documentFrequency));
+
+        PriorityQueue<SearchHit> hits = new PriorityQueue<>();
+        Set<Long> candidates = new HashSet<>();
+        expansions.get(0).forEach(expansion -> candidates.addAll(expansion.documents.keySet()));
+
+        for (Long id : candidates) {
+            IndexedTicket document = documents.get(id);
+
+            if (document == null || !document.matches(filter)) {
+                continue;
+            }
+
+            double score = score(document, expansions, averageLength);
+
+            if (score > 0) {
+                hits.add(new SearchHit(id, score));
+                if (hits.size() > limit) {
+                    hits.poll();
+                }
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(hits.size());
+        while (!hits.isEmpty()) {
+            ids.add(hits.poll().id);
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    void rebuild() {
+        rebuilding = true;
+        long start = System.nanoTime();
+
+        try {
+            long lastId = 0;
+            List<TicketDTO> batch;
+
+            do {
+                batch = ticketRepository.findDTOByIdGreaterThan(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+                for (TicketDTO ticket : batch) {
+                    reindex(ticket);
+                    lastId = ticket.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            logger.info("Rebuilt ticket search index with {} tickets in {} ms",
+                    documents.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild ticket search index", e);
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+    }
+
+    private synchronized void reindex(TicketDTO ticket) {
+        if (!removedDuringRebuild.contains(ticket.getId())) {
+            index(ticket);
+        }
+    }
+
+    private void removePostings(IndexedTicket document) {
+        document.termFrequencies.keySet().forEach(term -> {
+            Map<Long, Float> termDocuments = postings.get(term);
+
+            if (termDocuments != null) {
+                termDocuments.remove(document.id);
+                if (termDocuments.isEmpty()) {
+                    postings.remove(term, termDocuments);
+                }
+            }
+        });
+        totalLength -= document.length;
+    }
+
+    private List<Expansion> expand(String term, boolean prefix, int documentCount) {
+        List<Expansion> termExpansions = new ArrayList<>();
+        Map<Long, Float> exact = postings.get(term);
+
+        if (exact != null) {
+            termExpansions.add(new Expansion(exact, 1.0f, documentCount));
+        }
+
+        if (prefix) {
+            postings.subMap(term, false, term + Character.MAX_VALUE, false).values().stream()
+                    .limit(MAX_PREFIX_EXPANSIONS)
+                    .forEach(termDocuments ->
+                            termExpansions.add(new Expansion(termDocuments, PREFIX_MATCH_WEIGHT, documentCount)));
+        }
+
+        return termExpansions;
+    }
+
+    private double score(IndexedTicket document, List<List<Expansion>> expansions, double averageLength) {
+        double score = 0;
+        double normalisation = K1 * (1 - B + B * document.length / averageLength);
+
+        for (List<Expansion> termExpansions : expansions) {
+            double termScore = 0;
+
+            for (Expansion expansion : termExpansions) {
+                Float frequency = expansion.documents.get(document.id);
+
+                if (frequency != null) {
+                    double bm25 = expansion.idf * frequency * (K1 + 1) / (frequency + normalisation);
+                    termScore = Math.max(termScore, expansion.weight * bm25);
+                }
+            }
+
+            if (termScore == 0) {
+                return 0;
+            }
+            score += termScore;
+        }
+
+        return score;
+    }
+
+    private static long documentFrequency(List<Expansion> termExpansions) {
+        return termExpansions.stream().mapToLong(expansion -> expansion.documents.size()).sum();
+    }
+
+    private static Map<String, Float> termFrequencies(TicketDTO ticket) {
+        Map<String, Float> frequencies = new HashMap<>();
+        tokenize(ticket.getTitle()).forEach(term -> frequencies.merge(term, TITLE_BOOST, Float::sum));
+        tokenize(ticket.getDescription()).forEach(term -> frequencies.merge(term, 1.0f, Float::sum));
+        return frequencies;
+    }
+
+    private static Stream<String> tokenize(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT)).filter(token -> !token.isEmpty());
+    }
+
+    private static class IndexedTicket {
+        private final Long id;
+        private final LocalDateTime updatedAt;
+        private final TicketDTO fields;
+        private final Map<String, Float> termFrequencies;
+        private final float length;
+
+        /**
+         * Keeps a copy of the ticket without its text, so that filters are checked by {@link TicketFilter#matches}.
+         */
+        private IndexedTicket(TicketDTO ticket, Map<String, Float> termFrequencies) {
+            this.id = ticket.getId();
+            this.updatedAt = ticket.getUpdatedAt();
+            this.fields = TicketDTO.builder()
+                    .id(ticket.getId())
+                    .status(ticket.getStatus())
+                    .category(ticket.getCategory())
+                    .priority(ticket.getPriority())
+                    .author(ticket.getAuthor())
+                    .agent(ticket.getAgent())
+                    .updatedAt(ticket.getUpdatedAt())
+                    .build();
+            this.termFrequencies = termFrequencies;
+            this.length = (float) termFrequencies.values().stream().mapToDouble(Float::doubleValue).sum();
+        }
+
+        private boolean matches(TicketFilter filter) {
+            return filter.matches(fields);
+        }
+    }
+
+    private static class Expansion {
+        private final Map<Long, Float> documents;
+        private final float weight;
+        private final double idf;
+
+        private Expansion(Map<Long, Float> documents, float weight, int documentCount) {
+            int documentFrequency = documents.size();
+            this.documents = documents;
+            this.weight = weight;
+            this.idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+    }
+
+    private static class SearchHit implements Comparable<SearchHit> {
+        private final Long id;
+        private final double score;
+
+        private SearchHit(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(SearchHit other) {
+            int comparison = Double.compare(score, other.score);
+            return comparison != 0 ? comparison : Long.compare(other.id, id);
+        }
+    }
+}
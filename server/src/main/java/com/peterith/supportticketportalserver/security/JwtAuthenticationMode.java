@@ -0,0 +1,5 @@
+package com.peterith.supportticketportalserver.security;
+
+public enum JwtAuthenticationMode {
+    CLAIMS, DATABASE
+}
@@ -2,6 +2,7 @@ package com.peterith.supportticketportalserver.security;
 
 import com.peterith.supportticketportalserver.util.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +26,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Value("${jwt.authentication-mode:CLAIMS}")
+    JwtAuthenticationMode authenticationMode;
+
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -41,8 +47,10 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private void setAuthenticationForSecurityContext(HttpServletRequest request) {
         String authorizationHeader = request.getHeader("Authorization");
-        String username = jwtUtils.extractUsernameFromRequestHeader(authorizationHeader);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        VerifiedToken token = jwtUtils.verifyRequestHeader(authorizationHeader);
+        UserDetails userDetails = authenticationMode == JwtAuthenticationMode.CLAIMS && token.getRole() != null
+                ? new MyUserDetails(token)
+                : userDetailsService.loadUserByUsername(token.getUsername());
         UsernamePasswordAuthenticationToken authenticationToken = generateAuthenticationToken(userDetails, request);
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
@@ -57,7 +65,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             UserDetails userDetails, HttpServletRequest request) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                 userDetails.getUsername(), null, userDetails.getAuthorities());
-        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        authenticationToken.setDetails(authenticationDetailsSource.buildDetails(request));
         return authenticationToken;
     }
 }
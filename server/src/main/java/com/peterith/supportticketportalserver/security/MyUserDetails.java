@@ -20,6 +20,12 @@ public class MyUserDetails implements UserDetails {
         this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
 
+    public MyUserDetails(VerifiedToken token) {
+        this.username = token.getUsername();
+        this.password = null;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + token.getRole().name()));
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -0,0 +1,127 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.peterith.supportticketportalserver.util.JwtUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits requests per endpoint, keyed by the JWT subject for authenticated calls and by client IP otherwise.
+ * Rejected requests get 429 with {@code Retry-After} in seconds.
+ * <p>
+ * Runs before {@link JwtRequestFilter}, so the subject comes from the verified-token cache rather than the security
+ * context. A bearer token that does not verify is limited by IP like an anonymous call.
+ * <p>
+ * The client IP is {@link HttpServletRequest#getRemoteAddr()}. Behind the load balancer that is only the client's
+ * address with {@code server.forward-headers-strategy=native}, where Tomcat resolves it from {@code X-Forwarded-For},
+ * trusting only the entries appended by {@code server.tomcat.remoteip.internal-proxies}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    RateLimitProperties properties;
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    @PostConstruct
+    void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        for (RateLimitProperties.Endpoint endpoint : properties.getEndpoints()) {
+            String method = endpoint.getMethod() == null ? null : endpoint.getMethod().name();
+            int burst = endpoint.getBurst() == null ? endpoint.getRequests() : endpoint.getBurst();
+
+            rules.add(new Rule(
+                    new AntPathRequestMatcher(endpoint.getPath(), method),
+                    new RateLimiter(endpoint.getRequests(), endpoint.getPeriod(), burst, properties.getMaximumKeys()),
+                    Counter.builder("rate.limit.rejected")
+                            .description("Requests rejected by the rate limiter")
+                            .tag("method", method == null ? "ANY" : method)
+                            .tag("path", endpoint.getPath())
+                            .register(meterRegistry)));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Rule rule = findRule(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rule.limiter.tryAcquire(keyOf(request), System.nanoTime());
+        if (waitNanos > 0) {
+            rule.rejected.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(
+                    Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Rule findRule(HttpServletRequest request) {
+        for (Rule rule : rules) {
+            if (rule.matcher.matches(request)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String keyOf(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)) {
+            try {
+                return "user:" + jwtUtils.verifyRequestHeader(authorizationHeader).getUsername();
+            } catch (RuntimeException e) {
+                // Limited by IP below; JwtRequestFilter leaves the request unauthenticated.
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static class Rule {
+
+        private final RequestMatcher matcher;
+        private final RateLimiter limiter;
+        private final Counter rejected;
+
+        private Rule(RequestMatcher matcher, RateLimiter limiter, Counter rejected) {
+            this.matcher = matcher;
+            this.limiter = limiter;
+            this.rejected = rejected;
+        }
+    }
+}
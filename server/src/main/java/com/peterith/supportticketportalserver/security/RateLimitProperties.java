@@ -0,0 +1,38 @@
+package com.peterith.supportticketportalserver.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-endpoint request limits, e.g. {@code rate-limit.endpoints[0].path=/authenticate}. The first endpoint that
+ * matches a request applies; requests that match none are not limited.
+ */
+@Data
+@Component
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * Buckets kept per endpoint. Idle buckets are dropped once they would have refilled anyway.
+     */
+    private long maximumKeys = 100_000;
+
+    @Data
+    public static class Endpoint {
+        private HttpMethod method;
+        private String path;
+        private int requests;
+        private Duration period = Duration.ofMinutes(1);
+        private Integer burst;
+    }
+}
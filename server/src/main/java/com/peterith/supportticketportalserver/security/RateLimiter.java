@@ -0,0 +1,61 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in their GCRA form: each key holds a single theoretical arrival time that a request moves forward by
+ * one emission interval, so acquiring is a compare-and-set on one {@link AtomicLong} without any lock.
+ * <p>
+ * A key that has been idle for longer than the time it takes to refill its burst is indistinguishable from a new one,
+ * so keys expire after that and the number of keys is capped.
+ */
+public class RateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final Cache<String, AtomicLong> arrivals;
+
+    public RateLimiter(int requests, Duration period, int burst, long maximumKeys) {
+        if (requests <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("requests and burst must be positive");
+        }
+
+        this.emissionIntervalNanos = Math.max(1, period.toNanos() / requests);
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(toleranceNanos + emissionIntervalNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Takes a token for {@code key}.
+     *
+     * @return 0 when the request is allowed, otherwise how many nanoseconds to wait before the next one is
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(nowNanos));
+
+        while (true) {
+            long stored = arrival.get();
+            long theoreticalArrival = stored - nowNanos > 0 ? stored : nowNanos;
+            long waitNanos = theoreticalArrival - toleranceNanos - nowNanos;
+
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrival.compareAndSet(stored, theoreticalArrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public long estimatedKeys() {
+        return arrivals.estimatedSize();
+    }
+}
@@ -0,0 +1,13 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.peterith.supportticketportalserver.model.Role;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class VerifiedToken {
+    String username;
+    Role role;
+    Instant expiresAt;
+}
@@ -26,6 +26,9 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    RateLimitFilter rateLimitFilter;
+
     @Bean
     @Override
     public AuthenticationManager authenticationManagerBean() throws Exception {
@@ -43,6 +46,9 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/authenticate").permitAll()
                 .antMatchers(HttpMethod.GET, "/tickets").permitAll()
                 .antMatchers(HttpMethod.POST, "/tickets").hasRole(Role.CLIENT.name())
+                .antMatchers(HttpMethod.POST, "/tickets/batch").authenticated()
+                .antMatchers(HttpMethod.POST, "/tickets/import").hasRole(Role.AGENT.name())
+                .antMatchers(HttpMethod.GET, "/tickets/stats").hasRole(Role.AGENT.name())
                 .antMatchers(HttpMethod.GET, "/tickets/**").permitAll()
                 .antMatchers(HttpMethod.DELETE, "/tickets/**").authenticated()
                 .antMatchers(HttpMethod.PUT, "/tickets/**").authenticated())
@@ -52,7 +58,8 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(
                         new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
-                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtRequestFilter.class);
     }
 
     @Bean
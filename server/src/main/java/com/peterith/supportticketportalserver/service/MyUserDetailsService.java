@@ -2,6 +2,7 @@ package com.peterith.supportticketportalserver.service;
 
 import com.peterith.supportticketportalserver.repository.UserRepository;
 import com.peterith.supportticketportalserver.security.MyUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,10 +15,18 @@ public class MyUserDetailsService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .map(MyUserDetails::new)
-                .orElseThrow(() -> new UsernameNotFoundException("username not found"));
+        UserDetails userDetails = userRepository.findByUsername(username).map(MyUserDetails::new).orElse(null);
+        meterRegistry.counter("users.lookups", "result", userDetails == null ? "not_found" : "found").increment();
+
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("username not found");
+        }
+
+        return userDetails;
     }
 }
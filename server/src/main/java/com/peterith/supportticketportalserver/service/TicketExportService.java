@@ -0,0 +1,13 @@
+package com.peterith.supportticketportalserver.service;
+
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface TicketExportService {
+    long export(TicketFilter filter, LocalDateTime since, TicketFileFormat format, OutputStream outputStream)
+            throws IOException;
+}
@@ -0,0 +1,100 @@
+package com.peterith.supportticketportalserver.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.repository.TicketSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.peterith.supportticketportalserver.util.CsvUtils.escape;
+
+@Service
+public class TicketExportServiceImpl implements TicketExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final String CSV_HEADER =
+            "id,title,description,status,category,priority,author,agent,createdAt,updatedAt";
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(TicketFilter filter, LocalDateTime since, TicketFileFormat format, OutputStream outputStream)
+            throws IOException {
+        try (Stream<TicketDTO> tickets = ticketRepository.streamDTO(
+                TicketSpecifications.matching(filter).and(TicketSpecifications.updatedSince(since)))) {
+            return format == TicketFileFormat.CSV
+                    ? writeCsv(tickets.iterator(), outputStream)
+                    : writeNdjson(tickets.iterator(), outputStream);
+        }
+    }
+
+    private long writeNdjson(Iterator<TicketDTO> tickets, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TicketDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            while (tickets.hasNext()) {
+                writer.writeValue(generator, tickets.next());
+                generator.writeRaw('\n');
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private long writeCsv(Iterator<TicketDTO> tickets, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long count = 0;
+
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (tickets.hasNext()) {
+            TicketDTO ticket = tickets.next();
+            writer.write(String.join(",",
+                    String.valueOf(ticket.getId()),
+                    escape(ticket.getTitle()),
+                    escape(ticket.getDescription()),
+                    ticket.getStatus().name(),
+                    ticket.getCategory().name(),
+                    ticket.getPriority().name(),
+                    escape(ticket.getAuthor()),
+                    escape(ticket.getAgent()),
+                    String.valueOf(ticket.getCreatedAt()),
+                    String.valueOf(ticket.getUpdatedAt())));
+            writer.write('\n');
+
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+}
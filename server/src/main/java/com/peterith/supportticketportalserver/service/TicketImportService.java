@@ -0,0 +1,15 @@
+package com.peterith.supportticketportalserver.service;
+
+import com.peterith.supportticketportalserver.dto.ImportReport;
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+public interface TicketImportService {
+    ImportReport importTickets(InputStream inputStream, TicketFileFormat format) throws IOException;
+
+    ImportReport importRows(Iterator<Map<String, String>> rows);
+}
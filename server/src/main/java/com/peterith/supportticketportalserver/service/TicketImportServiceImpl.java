@@ -0,0 +1,262 @@
+package com.peterith.supportticketportalserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterith.supportticketportalserver.dto.ImportReport;
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.UserRepository;
+import com.peterith.supportticketportalserver.util.CsvUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TicketImportServiceImpl implements TicketImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketImportServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Value("${import.batch-size:500}")
+    int batchSize;
+
+    @Override
+    public ImportReport importTickets(InputStream inputStream, TicketFileFormat format) throws IOException {
+        return importRows(format == TicketFileFormat.CSV ? csvRows(inputStream) : jsonRows(inputStream));
+    }
+
+    @Override
+    public ImportReport importRows(Iterator<Map<String, String>> rows) {
+        long start = System.nanoTime();
+        Map<String, User> users = userRepository.findAll().stream()
+                .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Progress progress = new Progress();
+        List<Map<String, String>> batch = new ArrayList<>(batchSize);
+
+        while (rows.hasNext()) {
+            batch.add(rows.next());
+
+            if (batch.size() == batchSize) {
+                persistBatch(batch, users, transactionTemplate, progress);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            persistBatch(batch, users, transactionTemplate, progress);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        ImportReport report = ImportReport.builder()
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(progress.imported * 1e9 / elapsedNanos)
+                .build();
+        logger.info("Imported {} tickets ({} failed) in {} ms, {} rows/s",
+                report.getImported(), report.getFailed(), report.getElapsedMillis(),
+                Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void persistBatch(List<Map<String, String>> batch, Map<String, User> users,
+                              TransactionTemplate transactionTemplate, Progress progress) {
+        List<Ticket> tickets = transactionTemplate.execute(status -> {
+            List<Ticket> persisted = new ArrayList<>(batch.size());
+
+            for (Map<String, String> row : batch) {
+                progress.rows++;
+
+                try {
+                    Ticket ticket = toTicket(row, users);
+                    Set<ConstraintViolation<Ticket>> violations = validator.validate(ticket);
+
+                    if (violations.isEmpty()) {
+                        entityManager.persist(ticket);
+                        persisted.add(ticket);
+                    } else {
+                        progress.fail(violations.stream()
+                                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                .collect(Collectors.joining(", ")));
+                    }
+                } catch (IllegalArgumentException iae) {
+                    progress.fail(iae.getMessage());
+                }
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+            return persisted;
+        });
+
+        progress.imported += tickets.size();
+        tickets.forEach(ticket -> eventPublisher.publishEvent(new TicketEvent(TicketEvent.Type.CREATED, ticket.toDTO())));
+    }
+
+    private Ticket toTicket(Map<String, String> row, Map<String, User> users) {
+        User author = users.get(row.get("author"));
+        String agentUsername = emptyToNull(row.get("agent"));
+        User agent = agentUsername == null ? null : users.get(agentUsername);
+
+        if (author == null) {
+            throw new IllegalArgumentException("author: unknown username");
+        }
+
+        if (agentUsername != null && agent == null) {
+            throw new IllegalArgumentException("agent: unknown username");
+        }
+
+        return Ticket.builder()
+                .title(row.get("title"))
+                .description(emptyToNull(row.get("description")))
+                .status(toEnum(Status.class, row.get("status"), Status.OPEN))
+                .category(toEnum(Category.class, row.get("category"), null))
+                .priority(toEnum(Priority.class, row.get("priority"), Priority.MEDIUM))
+                .author(author)
+                .agent(agent)
+                .createdAt(toDateTime("createdAt", row.get("createdAt")))
+                .updatedAt(toDateTime("updatedAt", row.get("updatedAt")))
+                .build();
+    }
+
+    private LocalDateTime toDateTime(String column, String value) {
+        String text = emptyToNull(value);
+
+        if (text == null) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException dtpe) {
+            throw new IllegalArgumentException(column + ": invalid date-time");
+        }
+    }
+
+    private <E extends Enum<E>> E toEnum(Class<E> type, String value, E defaultValue) {
+        String name = emptyToNull(value);
+
+        if (name == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException(type.getSimpleName().toLowerCase(Locale.ROOT) + ": unknown value");
+        }
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private Iterator<Map<String, String>> jsonRows(InputStream inputStream) throws IOException {
+        MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(inputStream);
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public Map<String, String> next() {
+                Map<String, String> row = new HashMap<>();
+                nodes.next().fields().forEachRemaining(field ->
+                        row.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText()));
+                return row;
+            }
+        };
+    }
+
+    private Iterator<Map<String, String>> csvRows(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> header = CsvUtils.readRecord(reader);
+
+        return new Iterator<>() {
+            private List<String> next = header == null ? null : readRecord();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < header.size() && i < next.size(); i++) {
+                    row.put(header.get(i), next.get(i));
+                }
+                next = readRecord();
+                return row;
+            }
+
+            private List<String> readRecord() {
+                try {
+                    return CsvUtils.readRecord(reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static class Progress {
+        private long rows;
+        private long imported;
+        private long failed;
+        private final List<String> errors = new ArrayList<>();
+
+        private void fail(String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("row " + rows + ": " + message);
+            }
+        }
+    }
+}
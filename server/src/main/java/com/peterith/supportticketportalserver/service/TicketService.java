@@ -1,21 +1,59 @@
 package com.peterith.supportticketportalserver.service;
 
+import com.peterith.supportticketportalserver.dto.BatchTicketInput;
+import com.peterith.supportticketportalserver.dto.BatchTicketResult;
 import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketChangePage;
+import com.peterith.supportticketportalserver.dto.TicketCursor;
 import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.dto.TicketPage;
+import com.peterith.supportticketportalserver.dto.TicketStats;
+import com.peterith.supportticketportalserver.dto.TicketVersion;
 import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
 import org.springframework.security.core.Authentication;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface TicketService {
     List<TicketDTO> findAll();
 
+    TicketPage findPage(TicketFilter filter, TicketCursor cursor, int limit);
+
+    TicketPage findPage(TicketFilter filter, TicketCursor cursor, int limit, Set<TicketField> fields);
+
     Optional<TicketDTO> findById(Long id);
 
+    Optional<Long> findVersionById(Long id);
+
+    TicketVersion findVersion(TicketFilter filter);
+
+    TicketChangePage findHistory(Long id, Long cursor, int limit);
+
+    List<TicketDTO> search(String query, TicketFilter filter, int limit);
+
+    List<TicketDTO> search(String query, TicketFilter filter, int limit, Set<TicketField> fields);
+
+    TicketStats getStats();
+
+    Optional<TicketDTO> findByIdempotencyKey(String username, String idempotencyKey, CreateTicketInput input);
+
     TicketDTO create(CreateTicketInput input, String username);
 
+    TicketDTO create(CreateTicketInput input, String username, String idempotencyKey);
+
     TicketDTO deleteById(Long id, String username);
 
+    TicketDTO deleteById(Long id, String username, Long expectedVersion);
+
     TicketDTO updateById(Long id, UpdateTicketInput input, Authentication authentication);
+
+    TicketDTO updateById(Long id, UpdateTicketInput input, Authentication authentication, Long expectedVersion);
+
+    Optional<TicketDTO> escalate(Long id, Long version);
+
+    List<BatchTicketResult> applyBatch(BatchTicketInput input, Authentication authentication);
 }
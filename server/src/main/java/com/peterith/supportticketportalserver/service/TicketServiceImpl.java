@@ -1,26 +1,59 @@
 package com.peterith.supportticketportalserver.service;
 
+import com.peterith.supportticketportalserver.assignment.AgentLoadIndex;
+import com.peterith.supportticketportalserver.dto.BatchTicketInput;
+import com.peterith.supportticketportalserver.dto.BatchTicketResult;
 import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketChangeDTO;
+import com.peterith.supportticketportalserver.dto.TicketChangePage;
+import com.peterith.supportticketportalserver.dto.TicketCursor;
 import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.dto.TicketPage;
+import com.peterith.supportticketportalserver.dto.TicketStats;
+import com.peterith.supportticketportalserver.dto.TicketVersion;
 import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.duplicate.DuplicateIndex;
+import com.peterith.supportticketportalserver.event.TicketEvent;
 import com.peterith.supportticketportalserver.exception.AgentNotFoundException;
 import com.peterith.supportticketportalserver.exception.AuthorNotFoundException;
 import com.peterith.supportticketportalserver.exception.ForbiddenException;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyReusedException;
+import com.peterith.supportticketportalserver.exception.VersionMismatchException;
+import com.peterith.supportticketportalserver.model.Priority;
 import com.peterith.supportticketportalserver.model.Role;
 import com.peterith.supportticketportalserver.model.Status;
 import com.peterith.supportticketportalserver.model.Ticket;
+import com.peterith.supportticketportalserver.model.TicketChange;
 import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.repository.TicketChangeRepository;
 import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.repository.TicketSpecifications;
 import com.peterith.supportticketportalserver.repository.UserRepository;
+import com.peterith.supportticketportalserver.search.TicketSearchIndex;
+import com.peterith.supportticketportalserver.stats.TicketStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,30 +65,185 @@ public class TicketServiceImpl implements TicketService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    TicketChangeRepository ticketChangeRepository;
+
+    @Autowired
+    TicketSearchIndex ticketSearchIndex;
+
+    @Autowired
+    TicketStatistics ticketStatistics;
+
+    @Autowired
+    AgentLoadIndex agentLoadIndex;
+
+    @Autowired
+    DuplicateIndex duplicateIndex;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Value("${tickets.assignment.enabled:true}")
+    private boolean autoAssign;
+
+    @Value("${tickets.duplicates.enabled:true}")
+    private boolean detectDuplicates;
+
+    @Value("${tickets.duplicates.limit:5}")
+    private int duplicatesLimit;
+
     @Override
+    @Transactional(readOnly = true)
     public List<TicketDTO> findAll() {
-        List<Ticket> tickets = ticketRepository.findAll();
-        return tickets.stream().map(ticket -> ticket.toDTO()).collect(Collectors.toList());
+        return ticketRepository.findAllDTO();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public TicketPage findPage(TicketFilter filter, TicketCursor cursor, int limit) {
+        return findPage(filter, cursor, limit, TicketField.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TicketPage findPage(TicketFilter filter, TicketCursor cursor, int limit, Set<TicketField> fields) {
+        List<TicketDTO> dtos = ticketRepository.findDTOPage(
+                TicketSpecifications.matching(filter).and(TicketSpecifications.after(cursor)), fields, limit + 1);
+
+        if (dtos.size() <= limit) {
+            return TicketPage.builder().tickets(dtos).build();
+        }
+
+        List<TicketDTO> page = dtos.subList(0, limit);
+        return TicketPage.builder().tickets(page).nextCursor(TicketCursor.of(page.get(limit - 1))).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<TicketDTO> findById(Long id) {
-        Optional<Ticket> ticket = ticketRepository.findById(id);
-        return ticket.map(t -> t.toDTO());
+        return ticketRepository.findDTOById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionById(Long id) {
+        return ticketRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TicketVersion findVersion(TicketFilter filter) {
+        return ticketRepository.findVersion(TicketSpecifications.matching(filter));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TicketChangePage findHistory(Long id, Long cursor, int limit) {
+        if (!ticketRepository.existsById(id)) {
+            throw new NoSuchElementException();
+        }
+
+        List<TicketChangeDTO> dtos = ticketChangeRepository.findPage(id, cursor, PageRequest.of(0, limit + 1))
+                .stream()
+                .map(TicketChange::toDTO)
+                .collect(Collectors.toList());
+
+        if (dtos.size() <= limit) {
+            return TicketChangePage.builder().changes(dtos).build();
+        }
+
+        List<TicketChangeDTO> page = dtos.subList(0, limit);
+        return TicketChangePage.builder().changes(page).nextCursor(page.get(limit - 1).getId()).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketDTO> search(String query, TicketFilter filter, int limit) {
+        return search(query, filter, limit, TicketField.ALL);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TicketDTO> search(String query, TicketFilter filter, int limit, Set<TicketField> fields) {
+        List<Long> ids = ticketSearchIndex.search(query, filter, limit);
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, TicketDTO> dtos = ticketRepository.findDTOPage(TicketSpecifications.hasIdIn(ids), fields, ids.size())
+                .stream()
+                .collect(Collectors.toMap(TicketDTO::getId, Function.identity()));
+        return ids.stream().map(dtos::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public TicketStats getStats() {
+        return ticketStatistics.snapshot();
+    }
+
+    /**
+     * The ticket that the user created with {@code idempotencyKey}, which must have been for the same input. Its
+     * duplicates are looked up again, as for the create, leaving out the ticket itself.
+     * <p>
+     * Not read-only, so that it reads from the primary: a retry that reaches another instance right after the first
+     * create committed must find the ticket, which a lagging replica may not have yet.
+     */
+    @Override
+    @Transactional
+    public Optional<TicketDTO> findByIdempotencyKey(String username, String idempotencyKey, CreateTicketInput input) {
+        return ticketRepository.findByAuthorUsernameAndIdempotencyKey(username, idempotencyKey).map(ticket -> {
+            if (!input.fingerprint().equals(ticket.getIdempotencyFingerprint())) {
+                throw new IdempotencyKeyReusedException();
+            }
+
+            TicketDTO dto = ticket.toDTO();
+            dto.setDuplicates(findDuplicates(input, ticket.getId()));
+            return dto;
+        });
     }
 
     @Override
+    @Transactional
     public TicketDTO create(CreateTicketInput input, String username) {
+        return create(input, username, null);
+    }
+
+    @Override
+    @Transactional
+    public TicketDTO create(CreateTicketInput input, String username, String idempotencyKey) {
         Optional<User> optionalAuthor = userRepository.findByUsername(username);
 
         return optionalAuthor.map(author -> {
             Ticket ticket = new Ticket(input, author);
-            return ticketRepository.save(ticket).toDTO();
+            if (idempotencyKey != null) {
+                ticket.setIdempotencyKey(idempotencyKey);
+                ticket.setIdempotencyFingerprint(input.fingerprint());
+            }
+            if (autoAssign) {
+                agentLoadIndex.assign(ticket.getPriority())
+                        .flatMap(userRepository::findByUsername)
+                        .ifPresent(ticket::setAgent);
+            }
+            List<Long> duplicates = findDuplicates(input, null);
+            Ticket saved = ticketRepository.saveAndFlush(ticket);
+            eventPublisher.publishEvent(new TicketEvent(TicketEvent.Type.CREATED, saved.toDTO()));
+
+            TicketDTO dto = saved.toDTO();
+            dto.setDuplicates(duplicates);
+            return dto;
         }).orElseThrow(AuthorNotFoundException::new);
     }
 
     @Override
+    @Transactional
     public TicketDTO deleteById(Long id, String username) {
+        return deleteById(id, username, null);
+    }
+
+    @Override
+    @Transactional
+    public TicketDTO deleteById(Long id, String username, Long expectedVersion) {
         Optional<Ticket> optionalTicket = ticketRepository.findById(id);
         Ticket ticket = optionalTicket.orElseThrow();
 
@@ -63,16 +251,30 @@ public class TicketServiceImpl implements TicketService {
             throw new ForbiddenException();
         }
 
+        validateVersion(ticket, expectedVersion);
+
         ticketRepository.delete(ticket);
-        return ticket.toDTO();
+        TicketDTO dto = ticket.toDTO();
+        eventPublisher.publishEvent(new TicketEvent(TicketEvent.Type.DELETED, dto));
+        return dto;
     }
 
     @Override
+    @Transactional
     public TicketDTO updateById(Long id, UpdateTicketInput input, Authentication authentication) {
+        return updateById(id, input, authentication, null);
+    }
+
+    @Override
+    @Transactional
+    public TicketDTO updateById(Long id, UpdateTicketInput input, Authentication authentication,
+                                Long expectedVersion) {
         try {
             Optional<Ticket> optionalTicket = ticketRepository.findById(id);
             Ticket ticket = optionalTicket.orElseThrow();
             validateUpdatedTicket(ticket, input, authentication);
+            validateVersion(ticket, expectedVersion);
+            TicketDTO previous = ticket.toDTO();
 
             if (input.getAgent() == null) {
                 ticket.update(input);
@@ -82,13 +284,116 @@ public class TicketServiceImpl implements TicketService {
                 ticket.update(input, agent);
             }
 
-            return ticketRepository.save(ticket).toDTO();
+            TicketDTO dto = ticketRepository.saveAndFlush(ticket).toDTO();
+            eventPublisher.publishEvent(new TicketEvent(TicketEvent.Type.UPDATED, dto, previous));
+            return dto;
         } catch (TransactionSystemException e) {
             return throwTransactionRootCause(e);
         }
     }
 
-    private void validateUpdatedTicket(Ticket ticket, UpdateTicketInput input, Authentication authentication) {
+    /**
+     * Raises the priority of an open or in-progress ticket that is still at {@code version}. A ticket that is
+     * already HIGH is returned unchanged.
+     */
+    @Override
+    @Transactional
+    public Optional<TicketDTO> escalate(Long id, Long version) {
+        return ticketRepository.findById(id)
+                .filter(ticket -> ticket.getStatus() == Status.OPEN || ticket.getStatus() == Status.IN_PROGRESS)
+                .filter(ticket -> ticket.getVersion().equals(version))
+                .map(ticket -> {
+                    if (ticket.getPriority() == Priority.HIGH) {
+                        return ticket.toDTO();
+                    }
+
+                    TicketDTO previous = ticket.toDTO();
+                    ticket.setPriority(Priority.values()[ticket.getPriority().ordinal() + 1]);
+
+                    TicketDTO dto = ticketRepository.saveAndFlush(ticket).toDTO();
+                    eventPublisher.publishEvent(new TicketEvent(TicketEvent.Type.UPDATED, dto, previous));
+                    return dto;
+                });
+    }
+
+    @Override
+    @Transactional
+    public List<BatchTicketResult> applyBatch(BatchTicketInput input, Authentication authentication) {
+        Map<Long, Ticket> tickets = ticketRepository.findAllById(input.getIds()).stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+        User agent = input.getAgent() == null
+                ? null
+                : userRepository.findByUsername(input.getAgent()).orElseThrow(AgentNotFoundException::new);
+
+        Map<Long, BatchTicketResult.Outcome> outcomes = new LinkedHashMap<>();
+        Map<Long, TicketDTO> previousTickets = new HashMap<>();
+        List<Ticket> deletedTickets = new ArrayList<>();
+
+        for (Long id : input.getIds()) {
+            Ticket ticket = tickets.get(id);
+
+            if (ticket == null) {
+                outcomes.put(id, BatchTicketResult.Outcome.NOT_FOUND);
+            } else if (input.getAction() == BatchTicketInput.Action.DELETE) {
+                if (ticket.getAuthor().getUsername().equals(authentication.getName())) {
+                    deletedTickets.add(ticket);
+                    outcomes.put(id, BatchTicketResult.Outcome.DELETED);
+                } else {
+                    outcomes.put(id, BatchTicketResult.Outcome.FORBIDDEN);
+                }
+            } else {
+                previousTickets.put(id, ticket.toDTO());
+                outcomes.put(id, applyBatchUpdate(ticket, input, agent, authentication));
+            }
+        }
+
+        ticketRepository.deleteAll(deletedTickets);
+        ticketRepository.flush();
+
+        return outcomes.entrySet().stream().map(entry -> {
+            BatchTicketResult.Outcome outcome = entry.getValue();
+            BatchTicketResult result = BatchTicketResult.builder().id(entry.getKey()).outcome(outcome).build();
+
+            if (outcome == BatchTicketResult.Outcome.UPDATED || outcome == BatchTicketResult.Outcome.DELETED) {
+                TicketDTO dto = tickets.get(entry.getKey()).toDTO();
+                TicketEvent.Type type = outcome == BatchTicketResult.Outcome.UPDATED
+                        ? TicketEvent.Type.UPDATED
+                        : TicketEvent.Type.DELETED;
+                eventPublisher.publishEvent(new TicketEvent(type, dto, previousTickets.get(entry.getKey())));
+                result.setTicket(dto);
+            }
+
+            return result;
+        }).collect(Collectors.toList());
+    }
+
+    private BatchTicketResult.Outcome applyBatchUpdate(Ticket ticket, BatchTicketInput input, User agent,
+                                                       Authentication authentication) {
+        UpdateTicketInput update = UpdateTicketInput.builder()
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(input.getStatus() == null ? ticket.getStatus() : input.getStatus())
+                .category(input.getCategory() == null ? ticket.getCategory() : input.getCategory())
+                .priority(input.getPriority() == null ? ticket.getPriority() : input.getPriority())
+                .agent(input.getAgent())
+                .build();
+
+        try {
+            validateUpdatedTicket(ticket, update, authentication);
+        } catch (ForbiddenException fe) {
+            return BatchTicketResult.Outcome.FORBIDDEN;
+        }
+
+        if (agent == null) {
+            ticket.update(update);
+        } else {
+            ticket.update(update, agent);
+        }
+
+        return BatchTicketResult.Outcome.UPDATED;
+    }
+
+    void validateUpdatedTicket(Ticket ticket, UpdateTicketInput input, Authentication authentication) {
         if (isForbiddenTicketStatus(input.getStatus(), authentication) ||
                 isNonAuthorUpdate(ticket, input, authentication)) {
             throw new ForbiddenException();
@@ -96,10 +401,27 @@ public class TicketServiceImpl implements TicketService {
 
     }
 
+    private List<Long> findDuplicates(CreateTicketInput input, Long excludedId) {
+        if (!detectDuplicates) {
+            return null;
+        }
+
+        return duplicateIndex.findCandidates(input.getTitle(), input.getDescription(), duplicatesLimit + 1).stream()
+                .filter(id -> !id.equals(excludedId))
+                .limit(duplicatesLimit)
+                .collect(Collectors.toList());
+    }
+
+    private void validateVersion(Ticket ticket, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(ticket.getVersion())) {
+            throw new VersionMismatchException();
+        }
+    }
+
     private boolean isNonAuthorUpdate(Ticket ticket, UpdateTicketInput input, Authentication authentication) {
         return !ticket.getAuthor().getUsername().equals(authentication.getName()) &&
                 (!ticket.getTitle().equals(input.getTitle()) ||
-                        !ticket.getDescription().equals(input.getDescription()) ||
+                        !Objects.equals(ticket.getDescription(), input.getDescription()) ||
                         ticket.getCategory() != input.getCategory() ||
                         ticket.getPriority() != input.getPriority());
     }
@@ -0,0 +1,224 @@
+package com.peterith.supportticketportalserver.sla;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketSla;
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Escalates open and in-progress tickets that have gone without an update for longer than their priority's SLA.
+ * <p>
+ * Every such ticket has one timer in a {@link TimingWheel}, armed at {@code updatedAt} plus the SLA. Ticket events
+ * re-arm or cancel the timer, so nothing scans the table after the initial load at start-up. A timer that fires
+ * raises the ticket's priority, which re-arms it with the shorter SLA; a HIGH ticket that breaches is logged and
+ * counted instead.
+ * <p>
+ * Escalations run on the scheduling pool, at most {@code tickets.sla.max-escalations} per tick; timers past the cap
+ * stay due and fire on the next tick, so a burst of breaches is spread out rather than holding a scheduler thread.
+ * An escalation that loses a race with a user's update is counted as a conflict and dropped; that update has already
+ * re-armed the timer.
+ */
+@Component
+public class SlaScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaScheduler.class);
+
+    private static final int WHEEL_LEVELS = 4;
+    private static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.OPEN, Status.IN_PROGRESS);
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${tickets.sla.low:3d}")
+    private Duration lowSla;
+
+    @Value("${tickets.sla.medium:1d}")
+    private Duration mediumSla;
+
+    @Value("${tickets.sla.high:4h}")
+    private Duration highSla;
+
+    @Value("${tickets.sla.tick:1000}")
+    private long tickMillis;
+
+    @Value("${tickets.sla.max-escalations:100}")
+    private int maxEscalations;
+
+    private final Map<Priority, Duration> slas = new EnumMap<>(Priority.class);
+    private final Map<Long, TimingWheel.Timer<TicketSla>> timers = new HashMap<>();
+    private TimingWheel<TicketSla> wheel;
+
+    private Counter escalatedCounter;
+    private Counter breachedCounter;
+    private Counter conflictCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        slas.put(Priority.LOW, lowSla);
+        slas.put(Priority.MEDIUM, mediumSla);
+        slas.put(Priority.HIGH, highSla);
+        wheel = new TimingWheel<>(tickMillis, WHEEL_LEVELS, System.currentTimeMillis());
+
+        Gauge.builder("tickets.sla.pending", this, SlaScheduler::pending)
+                .description("Tickets with an armed SLA timer")
+                .register(meterRegistry);
+        escalatedCounter = escalations("escalated");
+        breachedCounter = escalations("breached");
+        conflictCounter = escalations("conflict");
+        failedCounter = escalations("failed");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTicketEvent(TicketEvent event) {
+        TicketDTO ticket = event.getTicket();
+
+        if (event.getType() == TicketEvent.Type.DELETED || !ACTIVE_STATUSES.contains(ticket.getStatus())) {
+            cancel(ticket.getId());
+        } else {
+            schedule(TicketSla.of(ticket));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        timers.clear();
+        wheel = new TimingWheel<>(tickMillis, WHEEL_LEVELS, System.currentTimeMillis());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TicketSla> tickets = ticketRepository.streamSlaByStatusIn(ACTIVE_STATUSES)) {
+                    tickets.forEach(this::schedule);
+                }
+            });
+            logger.info("Armed SLA timers for {} tickets", timers.size());
+        } catch (RuntimeException e) {
+            logger.error("Failed to load SLA timers", e);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${tickets.sla.tick:1000}")
+    public void tick() {
+        advance(System.currentTimeMillis());
+    }
+
+    /**
+     * Fires the timers that are due at {@code nowMillis}, up to the per-tick cap; the rest are re-armed for the next
+     * tick. Escalations run outside the lock, one transaction each.
+     */
+    public void advance(long nowMillis) {
+        List<TicketSla> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(nowMillis, sla -> {
+                timers.remove(sla.getId());
+                due.add(sla);
+            });
+
+            if (due.size() > maxEscalations) {
+                due.subList(maxEscalations, due.size()).forEach(this::schedule);
+                due.subList(maxEscalations, due.size()).clear();
+            }
+        }
+
+        due.forEach(this::escalate);
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    public synchronized boolean isScheduled(Long ticketId) {
+        return timers.containsKey(ticketId);
+    }
+
+    public long deadlineOf(TicketSla sla) {
+        return sla.getUpdatedAt().plus(slas.get(sla.getPriority()))
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    private void escalate(TicketSla sla) {
+        try {
+            Optional<TicketDTO> escalated = ticketService.escalate(sla.getId(), sla.getVersion());
+
+            if (escalated.isEmpty()) {
+                return;
+            }
+            if (escalated.get().getPriority() == sla.getPriority()) {
+                breachedCounter.increment();
+                logger.warn("Ticket {} breached its {} SLA of {}", sla.getId(), sla.getPriority(),
+                        slas.get(sla.getPriority()));
+            } else {
+                escalatedCounter.increment();
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            conflictCounter.increment();
+            logger.debug("Skipped escalating ticket {}, which was updated concurrently", sla.getId());
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            logger.error("Failed to escalate ticket {}", sla.getId(), e);
+        }
+    }
+
+    private void schedule(TicketSla sla) {
+        cancel(sla.getId());
+        timers.put(sla.getId(), wheel.schedule(sla, deadlineOf(sla)));
+    }
+
+    private void cancel(Long ticketId) {
+        TimingWheel.Timer<TicketSla> timer = timers.remove(ticketId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    private Counter escalations(String outcome) {
+        return Counter.builder("tickets.sla.escalations")
+                .description("SLA timers that fired, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
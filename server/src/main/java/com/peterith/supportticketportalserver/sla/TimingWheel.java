@@ -0,0 +1,169 @@
+package com.peterith.supportticketportalserver.sla;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: {@code levels} wheels of 64 slots each, where a slot on level {@code n} spans
+ * {@code 64^n} ticks. Scheduling and cancelling are O(1) list operations; a timer is moved down a level at most
+ * {@code levels - 1} times before it fires, so advancing costs O(1) per tick plus the timers that are due.
+ * <p>
+ * Deadlines beyond the top wheel are parked in its furthest slot and re-filed when that slot comes round. Not
+ * thread-safe.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int levels;
+    private final long maxDelta;
+    private final Timer<T>[][] wheels;
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException();
+        }
+
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.levels = levels;
+        this.maxDelta = (1L << (levels * SLOT_BITS)) - 1;
+        this.wheels = new Timer[levels][SLOTS];
+
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Timer<>(null, 0);
+            }
+        }
+    }
+
+    /**
+     * Schedules a timer; a deadline that has already passed fires on the next tick.
+     */
+    public Timer<T> schedule(T value, long deadlineMillis) {
+        long deadlineTick = Math.max(ticksAt(deadlineMillis), currentTick + 1);
+        Timer<T> timer = new Timer<>(value, deadlineTick);
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isScheduled()) {
+            return false;
+        }
+
+        timer.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}, handing every timer that is due to {@code expired}.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = ticksAt(nowMillis);
+
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+
+            currentTick++;
+            cascade();
+
+            Timer<T> bucket = wheels[0][(int) (currentTick & SLOT_MASK)];
+            while (bucket.next != bucket) {
+                Timer<T> timer = bucket.next;
+                timer.unlink();
+                size--;
+                expired.accept(timer.value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private long ticksAt(long millis) {
+        return Math.floorDiv(millis - startMillis, tickMillis);
+    }
+
+    /**
+     * Re-files the slots of every wheel whose lower wheels have just wrapped round, highest level first.
+     */
+    private void cascade() {
+        int highest = 0;
+        while (highest + 1 < levels && (currentTick & ((1L << ((highest + 1) * SLOT_BITS)) - 1)) == 0) {
+            highest++;
+        }
+
+        for (int level = highest; level > 0; level--) {
+            Timer<T> bucket = wheels[level][(int) ((currentTick >>> (level * SLOT_BITS)) & SLOT_MASK)];
+            while (bucket.next != bucket) {
+                Timer<T> timer = bucket.next;
+                timer.unlink();
+                file(timer);
+            }
+        }
+    }
+
+    private void file(Timer<T> timer) {
+        long tick = Math.min(timer.deadlineTick, currentTick + maxDelta);
+        long delta = tick - currentTick;
+
+        int level = 0;
+        while (level + 1 < levels && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+
+        timer.linkBefore(wheels[level][(int) ((tick >>> (level * SLOT_BITS)) & SLOT_MASK)]);
+    }
+
+    /**
+     * A scheduled value, linked into the slot it is waiting in. Slots are sentinel timers of a circular list.
+     */
+    public static final class Timer<T> {
+
+        private final T value;
+        private final long deadlineTick;
+        private Timer<T> previous = this;
+        private Timer<T> next = this;
+
+        private Timer(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isScheduled() {
+            return next != this;
+        }
+
+        private void linkBefore(Timer<T> sentinel) {
+            previous = sentinel.previous;
+            next = sentinel;
+            sentinel.previous.next = this;
+            sentinel.previous = this;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = this;
+            next = this;
+        }
+    }
+}
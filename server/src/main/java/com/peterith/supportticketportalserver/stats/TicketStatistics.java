@@ -0,0 +1,145 @@
+package com.peterith.supportticketportalserver.stats;
+
+import com.peterith.supportticketportalserver.dto.TicketCount;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketStats;
+import com.peterith.supportticketportalserver.event.TicketEvent;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live ticket counts by status, category, priority and agent.
+ * <p>
+ * Counters are adjusted from committed ticket events, so reads never touch the database. Writes that bypass the
+ * services, or events racing a reconciliation, can make the counters drift; they are therefore rebuilt from a single
+ * GROUP BY at start-up and periodically after that.
+ */
+@Component
+public class TicketStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketStatistics.class);
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    private volatile Counters counters = new Counters();
+    private volatile LocalDateTime reconciledAt;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketEvent(TicketEvent event) {
+        Counters current = counters;
+
+        if (event.getType() == TicketEvent.Type.CREATED) {
+            current.add(event.getTicket(), 1);
+        } else if (event.getType() == TicketEvent.Type.DELETED) {
+            current.add(event.getTicket(), -1);
+        } else {
+            if (event.getPrevious() != null) {
+                current.add(event.getPrevious(), -1);
+            }
+            current.add(event.getTicket(), 1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${tickets.stats.reconcile-interval:300000}",
+            fixedDelayString = "${tickets.stats.reconcile-interval:300000}")
+    public synchronized void reconcile() {
+        try {
+            Counters reconciled = new Counters();
+            for (TicketCount count : ticketRepository.countByStatusAndCategoryAndPriorityAndAgent()) {
+                reconciled.add(count.getStatus(), count.getCategory(), count.getPriority(), count.getAgent(),
+                        count.getCount());
+            }
+
+            counters = reconciled;
+            reconciledAt = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            logger.error("Failed to reconcile ticket statistics", e);
+        }
+    }
+
+    public TicketStats snapshot() {
+        return counters.snapshot(reconciledAt);
+    }
+
+    private static class Counters {
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder unassigned = new LongAdder();
+        private final LongAdder[] byStatus = newAdders(Status.values().length);
+        private final LongAdder[] byCategory = newAdders(Category.values().length);
+        private final LongAdder[] byPriority = newAdders(Priority.values().length);
+        private final Map<String, LongAdder> byAgent = new ConcurrentHashMap<>();
+
+        private static LongAdder[] newAdders(int length) {
+            LongAdder[] adders = new LongAdder[length];
+            for (int i = 0; i < length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        private static <E extends Enum<E>> Map<E, Long> toMap(Class<E> type, LongAdder[] adders) {
+            Map<E, Long> counts = new EnumMap<>(type);
+            for (E value : type.getEnumConstants()) {
+                counts.put(value, adders[value.ordinal()].sum());
+            }
+            return counts;
+        }
+
+        private void add(TicketDTO ticket, long delta) {
+            add(ticket.getStatus(), ticket.getCategory(), ticket.getPriority(), ticket.getAgent(), delta);
+        }
+
+        private void add(Status status, Category category, Priority priority, String agent, long delta) {
+            total.add(delta);
+            byStatus[status.ordinal()].add(delta);
+            byCategory[category.ordinal()].add(delta);
+            byPriority[priority.ordinal()].add(delta);
+
+            if (agent == null) {
+                unassigned.add(delta);
+            } else {
+                byAgent.computeIfAbsent(agent, key -> new LongAdder()).add(delta);
+            }
+        }
+
+        private TicketStats snapshot(LocalDateTime reconciledAt) {
+            Map<String, Long> agents = new TreeMap<>();
+            byAgent.forEach((agent, adder) -> {
+                long count = adder.sum();
+                if (count != 0) {
+                    agents.put(agent, count);
+                }
+            });
+
+            return TicketStats.builder()
+                    .total(total.sum())
+                    .unassigned(unassigned.sum())
+                    .byStatus(toMap(Status.class, byStatus))
+                    .byCategory(toMap(Category.class, byCategory))
+                    .byPriority(toMap(Priority.class, byPriority))
+                    .byAgent(agents)
+                    .reconciledAt(reconciledAt)
+                    .build();
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.peterith.supportticketportalserver.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
@@ -16,28 +27,83 @@ import java.util.Date;
 @Service
 public class JwtUtils {
 
+    private static final String VERIFIED_TOKEN_CACHE = "jwtVerifiedTokens";
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${jwt.verified-token-cache.maximum-size:10000}")
+    private long verifiedTokenCacheMaximumSize;
+
+    @Value("${jwt.verified-token-cache.expire-after-write:5m}")
+    private Duration verifiedTokenCacheExpireAfterWrite;
+
+    private Key secretKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+    private Timer signTimer;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        secretKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheMaximumSize)
+                .expireAfterWrite(verifiedTokenCacheExpireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, VERIFIED_TOKEN_CACHE,
+                "cacheManager", "jwtUtils", "name", VERIFIED_TOKEN_CACHE);
+        signTimer = Timer.builder("jwt.sign").description("Time to sign a JWT").register(meterRegistry);
+        verifyTimer = Timer.builder("jwt.verify")
+                .description("Time to verify a JWT signature on a verified-token cache miss")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     public String generateJWS(UserDetails userDetails) {
         SimpleGrantedAuthority authority = (SimpleGrantedAuthority) userDetails.getAuthorities().toArray()[0];
         String role = authority.getAuthority().substring(5);
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setExpiration(Date.from(Instant.now().plus(Duration.ofDays(7))))
                 .setIssuedAt(Date.from(Instant.now()))
                 .claim("role", role)
-                .signWith(getSecretKey())
-                .compact();
+                .signWith(secretKey)
+                .compact());
     }
 
     public String extractUsernameFromRequestHeader(String header) {
+        return verifyRequestHeader(header).getUsername();
+    }
+
+    public VerifiedToken verifyRequestHeader(String header) {
         String jws = header.substring(7);
-        return Jwts.parserBuilder().setSigningKey(getSecretKey()).build().parseClaimsJws(jws).getBody().getSubject();
+        VerifiedToken cached = verifiedTokens.getIfPresent(jws);
+
+        if (cached != null) {
+            if (cached.getExpiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(jws);
+        }
+
+        VerifiedToken verified = verifyTimer.record(() -> verify(jws));
+        verifiedTokens.put(jws, verified);
+        return verified;
     }
 
-    private Key getSecretKey() {
-        byte[] decodedSecret = Base64.getDecoder().decode(jwtSecret);
-        return Keys.hmacShaKeyFor(decodedSecret);
+    private VerifiedToken verify(String jws) {
+        Claims claims = parser.parseClaimsJws(jws).getBody();
+        String role = claims.get("role", String.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                role == null ? null : Role.valueOf(role),
+                claims.getExpiration() == null ? Instant.MAX : claims.getExpiration().toInstant());
     }
 }
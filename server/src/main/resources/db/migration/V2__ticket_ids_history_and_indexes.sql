@@ -0,0 +1,42 @@
+-- Brings a schema created from the original entities (V1) up to date with this version of the server. Apply it once,
+-- with the server stopped, before the new version starts serving: no profile except dev lets Hibernate change the
+-- schema.
+
+-- Ticket ids are allocated by Hibernate in blocks of 50 from ticket_sequence instead of by AUTO_INCREMENT, so that
+-- inserts can be batched. MySQL has no sequences, so Hibernate keeps the next value in a one-row table. Its pooled
+-- optimizer hands out next_val - 49 to next_val, so the first block has to start above the existing ids.
+ALTER TABLE ticket MODIFY id BIGINT NOT NULL;
+CREATE TABLE ticket_sequence (next_val BIGINT);
+INSERT INTO ticket_sequence (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM ticket;
+
+-- Optimistic locking and If-Match; existing tickets start at version 0.
+ALTER TABLE ticket ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Idempotency-Key on ticket creation, unique per author.
+ALTER TABLE ticket ADD COLUMN idempotency_key VARCHAR(255);
+ALTER TABLE ticket ADD COLUMN idempotency_fingerprint VARCHAR(32);
+CREATE UNIQUE INDEX ticket_author_id_idempotency_key_idx ON ticket (author_id, idempotency_key);
+
+-- Listing filters, each followed by the listing order. A schema that already has the interim indexes
+-- ticket_status_priority_updated_at_idx, ticket_agent_id_status_idx or ticket_author_id_created_at_idx should drop
+-- them; they are superseded by these.
+CREATE INDEX ticket_updated_at_id_idx ON ticket (updated_at DESC, id DESC);
+CREATE INDEX ticket_status_updated_at_id_idx ON ticket (status, updated_at DESC, id DESC);
+CREATE INDEX ticket_status_priority_updated_at_id_idx ON ticket (status, priority, updated_at DESC, id DESC);
+CREATE INDEX ticket_agent_id_updated_at_id_idx ON ticket (agent_id, updated_at DESC, id DESC);
+CREATE INDEX ticket_author_id_updated_at_id_idx ON ticket (author_id, updated_at DESC, id DESC);
+
+-- Field-level ticket history, with ids from its own sequence table.
+CREATE TABLE ticket_change (
+    id BIGINT NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    changed_by VARCHAR(50),
+    field VARCHAR(20) NOT NULL,
+    new_value VARCHAR(100),
+    old_value VARCHAR(100),
+    ticket_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX ticket_change_ticket_id_id_idx ON ticket_change (ticket_id, id);
+CREATE TABLE ticket_change_sequence (next_val BIGINT);
+INSERT INTO ticket_change_sequence (next_val) VALUES (50);
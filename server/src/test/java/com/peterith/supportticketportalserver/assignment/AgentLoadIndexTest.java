@@ -0,0 +1,176 @@
+package com.peterith.supportticketportalserver.assignment;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.repository.UserRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class AgentLoadIndexTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    AgentLoadIndex agentLoadIndex;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+    User otherAgent = User.builder().username("agent008").password("{noop}password").role(Role.AGENT).build();
+
+    Ticket openTicket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.HIGH)
+            .author(client)
+            .agent(agent)
+            .build();
+
+    Ticket closedTicket = Ticket.builder()
+            .title("Ticket 2")
+            .description("Description 2")
+            .status(Status.CLOSED)
+            .category(Category.BUG)
+            .priority(Priority.HIGH)
+            .author(client)
+            .agent(agent)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        otherAgent = userRepository.save(otherAgent);
+        ticketRepository.saveAll(List.of(openTicket, closedTicket));
+        agentLoadIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+        userRepository.deleteById(otherAgent.getId());
+        agentLoadIndex.rebuild();
+    }
+
+    @Test
+    void shouldWeighOpenTicketsByPriorityWhenRebuilt() {
+        assertThat(agentLoadIndex.loadOf(agent.getUsername()), is(Optional.of(4L)));
+        assertThat(agentLoadIndex.loadOf(otherAgent.getUsername()), is(Optional.of(0L)));
+        assertThat(agentLoadIndex.loadOf(client.getUsername()), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldAssignLeastLoadedAgentWhenCreate() {
+        assertThat(create().getAgent(), is(otherAgent.getUsername()));
+        assertThat(agentLoadIndex.loadOf(otherAgent.getUsername()), is(Optional.of(2L)));
+
+        assertThat(create().getAgent(), is(otherAgent.getUsername()));
+        assertThat(create().getAgent(), is(agent.getUsername()));
+        assertThat(agentLoadIndex.loadOf(agent.getUsername()), is(Optional.of(6L)));
+        assertThat(agentLoadIndex.loadOf(otherAgent.getUsername()), is(Optional.of(4L)));
+    }
+
+    @Test
+    void shouldReleaseReservationWhenCreateFails() {
+        CreateTicketInput input = CreateTicketInput.builder().title("").category(Category.BUG).build();
+
+        assertThrows(ConstraintViolationException.class, () -> ticketService.create(input, client.getUsername()));
+        assertThat(agentLoadIndex.loadOf(otherAgent.getUsername()), is(Optional.of(0L)));
+    }
+
+    @Test
+    void shouldMatchRebuiltLoadWhenCreatingConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<TicketDTO>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit((Callable<TicketDTO>) this::create));
+            }
+
+            List<TicketDTO> created = new ArrayList<>();
+            for (Future<TicketDTO> future : futures) {
+                created.add(future.get());
+            }
+
+            Map<String, Long> assigned = created.stream()
+                    .collect(Collectors.groupingBy(TicketDTO::getAgent, Collectors.counting()));
+            assertThat(assigned.keySet(), containsInAnyOrder(agent.getUsername(), otherAgent.getUsername()));
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<String, Optional<Long>> live = loads();
+        agentLoadIndex.rebuild();
+        assertThat(live, is(loads()));
+        assertThat(live.values().stream().mapToLong(Optional::get).sum(), is(4L + 40 * 2));
+    }
+
+    @Test
+    void shouldCorrectEventsRacingRebuildWhenRebuiltAgain() {
+        List<TicketDTO> createdDuringRebuild = new ArrayList<>();
+        TicketRepository readingRepository = mock(TicketRepository.class, delegatesTo(ticketRepository));
+        doAnswer(invocation -> {
+            Object counts = ticketRepository.countByStatusAndCategoryAndPriorityAndAgent();
+            createdDuringRebuild.add(create());
+            return counts;
+        }).when(readingRepository).countByStatusAndCategoryAndPriorityAndAgent();
+
+        ReflectionTestUtils.setField(agentLoadIndex, "ticketRepository", readingRepository);
+        try {
+            agentLoadIndex.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(agentLoadIndex, "ticketRepository", ticketRepository);
+        }
+
+        assertThat(createdDuringRebuild, hasSize(1));
+        assertThat(createdDuringRebuild.get(0).getAgent(), is(otherAgent.getUsername()));
+
+        agentLoadIndex.rebuild();
+        assertThat(agentLoadIndex.loadOf(otherAgent.getUsername()), is(Optional.of(2L)));
+    }
+
+    private TicketDTO create() {
+        return ticketService.create(CreateTicketInput.builder()
+                .title("New ticket")
+                .category(Category.TECHNICAL_ISSUE)
+                .build(), client.getUsername());
+    }
+
+    private Map<String, Optional<Long>> loads() {
+        return List.of(agent.getUsername(), otherAgent.getUsername()).stream()
+                .collect(Collectors.toMap(Function.identity(), agentLoadIndex::loadOf));
+    }
+}
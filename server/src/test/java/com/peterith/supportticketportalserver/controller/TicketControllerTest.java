@@ -1,9 +1,18 @@
 package com.peterith.supportticketportalserver.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.peterith.supportticketportalserver.dto.BatchTicketInput;
 import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
 import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
 import com.peterith.supportticketportalserver.model.*;
 import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,8 +22,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.UUID;
 
 import static com.peterith.supportticketportalserver.util.TestUtils.toJSONString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,9 +41,15 @@ class TicketControllerTest {
     @Autowired
     TicketRepository ticketRepository;
 
+    @Autowired
+    TicketService ticketService;
+
     @Autowired
     MockMvc mockMvc;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
     User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
 
@@ -68,6 +90,353 @@ class TicketControllerTest {
                 .andExpect(jsonPath("$[0].updatedAt").isString());
     }
 
+    @Test
+    void shouldReturnSmileWhenGetTicketsAcceptsSmile() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tickets").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        JsonNode tickets = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(tickets.get(0).get("id").asLong(), is(ticket.getId()));
+        assertThat(tickets.get(0).get("title").asText(), is(ticket.getTitle()));
+        assertThat(tickets.get(0).get("status").asText(), is(ticket.getStatus().name()));
+        assertThat(tickets.get(0).get("updatedAt").isTextual(), is(true));
+    }
+
+    @Test
+    void shouldReturnCborWhenGetTicketsAcceptsCbor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tickets").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode tickets = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(tickets.get(0).get("id").asLong(), is(ticket.getId()));
+        assertThat(tickets.get(0).get("agent").asText(), is(agent.getUsername()));
+    }
+
+    @Test
+    void shouldReturnDifferentETagsWhenGetTicketsInDifferentFormats() throws Exception {
+        String jsonETag = mockMvc.perform(get("/tickets").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader("ETag");
+        String cborETag = mockMvc.perform(get("/tickets").accept(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(cborETag, is(not(jsonETag)));
+    }
+
+    @Test
+    void shouldExecuteVersionProbeAndSingleStatementWhenGetTickets() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/tickets")).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenGetTicketsAndETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/tickets"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/tickets").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+
+    @Test
+    void shouldReturnOkWhenGetTicketsAndETagIsStale() throws Exception {
+        String eTag = mockMvc.perform(get("/tickets"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        ticketRepository.save(Ticket.builder()
+                .title("Ticket 2")
+                .status(Status.OPEN)
+                .category(Category.BUG)
+                .priority(Priority.LOW)
+                .author(client)
+                .build());
+
+        mockMvc.perform(get("/tickets").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/tickets").param("status", Status.CLOSED.name()).header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldExecuteVersionProbeAndSingleStatementWhenGetTicket() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/tickets/" + ticket.getId())).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenGetTicketAndETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/tickets/" + ticket.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/tickets/" + ticket.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+    }
+
+    @Test
+    void shouldReturnDifferentETagsWhenGetTicketInDifferentFormats() throws Exception {
+        String jsonETag = mockMvc.perform(get("/tickets/" + ticket.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+        String cborETag = mockMvc.perform(get("/tickets/" + ticket.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(cborETag, is(not(jsonETag)));
+        mockMvc.perform(get("/tickets/" + ticket.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", jsonETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tickets/" + ticket.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", cborETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+
+    @Test
+    void shouldVaryByAcceptWhenGetTickets() throws Exception {
+        mockMvc.perform(get("/tickets"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnOkWhenGetTicketAndETagIsStale() throws Exception {
+        String eTag = mockMvc.perform(get("/tickets/" + ticket.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Thread.sleep(10);
+        UpdateTicketInput input = UpdateTicketInput.builder()
+                .title("Ticket 1 updated")
+                .description(ticket.getDescription())
+                .status(ticket.getStatus())
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .agent(agent.getUsername())
+                .build();
+        mockMvc.perform(put("/tickets/" + ticket.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tickets/" + ticket.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("title").value("Ticket 1 updated"));
+    }
+
+    @Test
+    void shouldReturnFilteredTicketsWhenGetTicketsWithFilter() throws Exception {
+        mockMvc.perform(get("/tickets").param("status", Status.OPEN.name()).param("agent", agent.getUsername()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(ticket.getId()));
+
+        mockMvc.perform(get("/tickets").param("status", Status.CLOSED.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenGetTicketsAndMorePages() throws Exception {
+        Ticket newerTicket = ticketRepository.save(Ticket.builder()
+                .title("Ticket 2")
+                .description("Description 2")
+                .status(Status.OPEN)
+                .category(Category.FEATURE_REQUEST)
+                .priority(Priority.LOW)
+                .author(client)
+                .build());
+
+        String cursor = mockMvc.perform(get("/tickets").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(newerTicket.getId()))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/tickets").param("limit", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(ticket.getId()))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void shouldExposeNextCursorToClientWhenGetTicketsCrossOrigin() throws Exception {
+        mockMvc.perform(get("/tickets").header("Origin", "http://localhost:3000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:3000"))
+                .andExpect(header().string("Access-Control-Expose-Headers", containsString("X-Next-Cursor")));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenGetTicketsAndInvalidCursor() throws Exception {
+        mockMvc.perform(get("/tickets").param("cursor", "invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnRequestedFieldsOnlyWhenGetTicketsWithFields() throws Exception {
+        mockMvc.perform(get("/tickets").param("fields", "title,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(ticket.getId()))
+                .andExpect(jsonPath("$[0].title").value(ticket.getTitle()))
+                .andExpect(jsonPath("$[0].status").value(ticket.getStatus().name()))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].author").doesNotExist())
+                .andExpect(jsonPath("$[0].updatedAt").doesNotExist());
+    }
+
+    @Test
+    void shouldPageWithCursorWhenGetTicketsWithFields() throws Exception {
+        ticketRepository.save(Ticket.builder()
+                .title("Ticket 2")
+                .status(Status.OPEN)
+                .category(Category.BUG)
+                .priority(Priority.LOW)
+                .author(client)
+                .build());
+
+        String cursor = mockMvc.perform(get("/tickets").param("fields", "agent").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].agent").doesNotExist())
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/tickets").param("fields", "agent").param("limit", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(ticket.getId()))
+                .andExpect(jsonPath("$[0].agent").value(agent.getUsername()));
+    }
+
+    @Test
+    void shouldReturnDifferentETagsWhenGetTicketsWithDifferentFields() throws Exception {
+        String allETag = mockMvc.perform(get("/tickets")).andReturn().getResponse().getHeader("ETag");
+        String titleETag = mockMvc.perform(get("/tickets").param("fields", "title"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(titleETag, is(not(allETag)));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenGetTicketsWithUnknownField() throws Exception {
+        mockMvc.perform(get("/tickets").param("fields", "title,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("fields: unknown field"));
+    }
+
+    @Test
+    void shouldReturnOkWhenSearchTickets() throws Exception {
+        TicketDTO dto = ticketService.create(CreateTicketInput.builder()
+                .title("Printer offline")
+                .description("The office printer is offline again")
+                .category(Category.TECHNICAL_ISSUE)
+                .build(), client.getUsername());
+
+        mockMvc.perform(get("/tickets/search").param("q", "print"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(dto.getId()))
+                .andExpect(jsonPath("$[0].title").value(dto.getTitle()));
+
+        mockMvc.perform(get("/tickets/search").param("q", "print").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(dto.getId()))
+                .andExpect(jsonPath("$[0].title").value(dto.getTitle()))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        mockMvc.perform(get("/tickets/search").param("q", "printer").param("category", Category.BUG.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenSearchTicketsAndBlankQuery() throws Exception {
+        mockMvc.perform(get("/tickets/search").param("q", " ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamNdjsonWhenExportTickets() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tickets/export").param("status", Status.OPEN.name()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"id\":" + ticket.getId())))
+                .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    void shouldStreamCsvWhenExportTicketsSince() throws Exception {
+        MvcResult result1 = mockMvc.perform(get("/tickets/export").param("format", "csv")
+                .param("since", ticket.getUpdatedAt().minusMinutes(1).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(startsWith("id,title,description,status,category,priority,author,agent")))
+                .andExpect(content().string(containsString(ticket.getId() + ",Ticket 1,Description 1,OPEN,BUG,MEDIUM")));
+
+        MvcResult result2 = mockMvc.perform(get("/tickets/export").param("format", "csv")
+                .param("since", ticket.getUpdatedAt().plusMinutes(1).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result2))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Ticket 1"))));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenExportTicketsAndUnknownFormat() throws Exception {
+        MvcResult result = mockMvc.perform(get("/tickets/export").param("format", "xml"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("format: must be ndjson or csv"));
+    }
+
     @Test
     void shouldReturnOkWhenGetTicket() throws Exception {
         mockMvc.perform(get("/tickets/" + ticket.getId()))
@@ -115,6 +484,98 @@ class TicketControllerTest {
                 .andExpect(jsonPath("updatedAt").isString());
     }
 
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnDuplicatesWhenCreateTicketSimilarToOpenTicket() throws Exception {
+        CreateTicketInput input = CreateTicketInput.builder()
+                .title("Checkout page times out")
+                .description("Every attempt to pay by card spins for a minute and then shows a gateway timeout.")
+                .category(Category.BUG)
+                .build();
+
+        String first = mockMvc.perform(post("/tickets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("duplicates").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+        long firstId = new ObjectMapper().readTree(first).get("id").asLong();
+
+        input.setTitle("Checkout page timing out");
+        mockMvc.perform(post("/tickets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("duplicates", contains((int) firstId)));
+
+        mockMvc.perform(get("/tickets/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("duplicates").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnSameTicketWhenCreateTicketRetriedWithIdempotencyKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        String content = toJSONString(CreateTicketInput.builder()
+                .title("Ticket 2")
+                .description("Description 2")
+                .category(Category.FEATURE_REQUEST)
+                .build());
+
+        String first = mockMvc.perform(post("/tickets")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/tickets")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content))
+                .andExpect(status().isOk())
+                .andExpect(content().json(first, true));
+        assertThat(ticketRepository.count(), is(2L));
+
+        mockMvc.perform(post("/tickets")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content))
+                .andExpect(status().isOk());
+        assertThat(ticketRepository.count(), is(3L));
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnUnprocessableEntityWhenIdempotencyKeyReusedForDifferentTicket() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CreateTicketInput input = CreateTicketInput.builder()
+                .title("Ticket 2")
+                .description("Description 2")
+                .category(Category.FEATURE_REQUEST)
+                .build();
+
+        mockMvc.perform(post("/tickets")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isOk());
+
+        input.setTitle("Ticket 3");
+        mockMvc.perform(post("/tickets")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(post("/tickets")
+                .header("Idempotency-Key", " ")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturnUnauthorizedWhenCreateTicketAndUnauthorized() throws Exception {
         CreateTicketInput input = CreateTicketInput.builder()
@@ -255,6 +716,63 @@ class TicketControllerTest {
                 .andExpect(jsonPath("updatedAt").isString());
     }
 
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnOkWhenUpdateTicketAndIfMatchMatches() throws Exception {
+        UpdateTicketInput input = UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description("New Description 1")
+                .status(Status.CLOSED)
+                .category(Category.TECHNICAL_ISSUE)
+                .priority(Priority.HIGH)
+                .build();
+
+        String eTag = mockMvc.perform(get("/tickets/" + ticket.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/tickets/" + ticket.getId())
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (ticket.getVersion() + 1) + "-json\""))
+                .andExpect(jsonPath("version").value(ticket.getVersion() + 1));
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnPreconditionFailedWhenUpdateTicketAndIfMatchIsStale() throws Exception {
+        UpdateTicketInput input = UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description("New Description 1")
+                .status(Status.CLOSED)
+                .category(Category.TECHNICAL_ISSUE)
+                .priority(Priority.HIGH)
+                .build();
+
+        mockMvc.perform(put("/tickets/" + ticket.getId())
+                .header("If-Match", "\"" + (ticket.getVersion() + 1) + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/tickets/" + ticket.getId())
+                .header("If-Match", "W/\"" + ticket.getVersion() + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnPreconditionFailedWhenDeleteTicketAndIfMatchIsStale() throws Exception {
+        mockMvc.perform(delete("/tickets/" + ticket.getId()).header("If-Match", "\"" + (ticket.getVersion() + 1) + "\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/tickets/" + ticket.getId()).header("If-Match", "\"" + ticket.getVersion() + "\""))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void shouldReturnUnauthorizedWhenUpdateTicketAndUnauthorized() throws Exception {
         UpdateTicketInput input = UpdateTicketInput.builder()
@@ -483,4 +1001,62 @@ class TicketControllerTest {
                 .content(content))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(username = "agent007", roles = {"AGENT"})
+    void shouldReturnOkWhenBatchTickets() throws Exception {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of(ticket.getId(), 0L))
+                .action(BatchTicketInput.Action.UPDATE)
+                .status(Status.RESOLVED)
+                .build();
+
+        mockMvc.perform(post("/tickets/batch").contentType(MediaType.APPLICATION_JSON).content(toJSONString(input)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(ticket.getId()))
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].ticket.status").value(Status.RESOLVED.name()))
+                .andExpect(jsonPath("$[1].id").value(0))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    void shouldReturnUnauthorizedWhenBatchTicketsAndUnauthorized() throws Exception {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of(ticket.getId()))
+                .action(BatchTicketInput.Action.DELETE)
+                .build();
+
+        mockMvc.perform(post("/tickets/batch").contentType(MediaType.APPLICATION_JSON).content(toJSONString(input)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnUnprocessableEntityWhenBatchTicketsAndNoIds() throws Exception {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of())
+                .action(BatchTicketInput.Action.DELETE)
+                .build();
+
+        mockMvc.perform(post("/tickets/batch").contentType(MediaType.APPLICATION_JSON).content(toJSONString(input)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithMockUser(username = "agent007", roles = {"AGENT"})
+    void shouldReturnOkWhenImportTickets() throws Exception {
+        String content = "{\"title\":\"Ticket 2\",\"category\":\"BUG\",\"author\":\"noobMaster\"}\n";
+
+        mockMvc.perform(post("/tickets/import").param("format", "ndjson").content(content))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("imported").value(1))
+                .andExpect(jsonPath("failed").value(0));
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnForbiddenWhenImportTicketsAndForbidden() throws Exception {
+        mockMvc.perform(post("/tickets/import").content("")).andExpect(status().isForbidden());
+    }
 }
@@ -0,0 +1,138 @@
+package com.peterith.supportticketportalserver.datasource;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    DataSource primaryDataSource;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+
+    Authentication clientAuthentication = new UsernamePasswordAuthenticationToken(
+            client.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.CLIENT)));
+
+    Ticket ticket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.MEDIUM)
+            .author(client)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        replicate();
+        ticketRepository.save(ticket);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadFromReplicaWhenReadOnly() {
+        assertThat(ticketService.findById(ticket.getId()).isPresent(), is(false));
+
+        replicate();
+        assertThat(ticketService.findById(ticket.getId()).isPresent(), is(true));
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenUserHasJustWritten() {
+        replicate();
+        SecurityContextHolder.getContext().setAuthentication(clientAuthentication);
+
+        ticketService.updateById(ticket.getId(), UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description(ticket.getDescription())
+                .status(ticket.getStatus())
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .build(), clientAuthentication);
+        assertThat(ticketService.findById(ticket.getId()).get().getTitle(), is("New Ticket 1"));
+
+        SecurityContextHolder.clearContext();
+        assertThat(ticketService.findById(ticket.getId()).get().getTitle(), is(ticket.getTitle()));
+    }
+
+    @Test
+    void shouldWriteToPrimaryWhenUpdatingStaleReplica() {
+        replicate();
+        ticketRepository.save(ticketRepository.findById(ticket.getId()).map(saved -> {
+            saved.setTitle("Replicated later");
+            return saved;
+        }).get());
+
+        ticketService.updateById(ticket.getId(), UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description(ticket.getDescription())
+                .status(ticket.getStatus())
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .build(), clientAuthentication);
+
+        replicate();
+        assertThat(ticketService.findById(ticket.getId()).get().getVersion(), is(ticket.getVersion() + 2));
+    }
+
+    @Test
+    void shouldFindIdempotencyKeyOnPrimaryWhenReplicaLags() {
+        replicate();
+        CreateTicketInput input = CreateTicketInput.builder()
+                .title("Ticket 2")
+                .category(Category.BUG)
+                .build();
+        TicketDTO created = ticketService.create(input, client.getUsername(), "key-1");
+
+        Optional<TicketDTO> actual = ticketService.findByIdempotencyKey(client.getUsername(), "key-1", input);
+        assertThat(actual.map(TicketDTO::getId), is(Optional.of(created.getId())));
+    }
+
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
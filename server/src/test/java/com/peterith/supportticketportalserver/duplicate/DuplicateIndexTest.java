@@ -0,0 +1,134 @@
+package com.peterith.supportticketportalserver.duplicate;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class DuplicateIndexTest {
+
+    @Autowired
+    DuplicateIndex duplicateIndex;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    LocalDateTime now = LocalDateTime.now();
+
+    @AfterEach
+    void tearDown() {
+        List.of(1001L, 1002L, 1003L).forEach(duplicateIndex::remove);
+    }
+
+    @Test
+    void shouldFindNearDuplicateWhenTextDiffersSlightly() {
+        duplicateIndex.index(ticket(1001L, "Cannot log in to the portal",
+                "Since this morning the login page shows an error after entering my password.", Status.OPEN));
+        duplicateIndex.index(ticket(1002L, "Invoice total is wrong",
+                "The March invoice charges us twice for the same seat.", Status.OPEN));
+
+        List<Long> candidates = duplicateIndex.findCandidates("Can't log in to the portal!",
+                "Since this morning the login page shows an error after I enter my password", 5);
+
+        assertThat(candidates, contains(1001L));
+    }
+
+    @Test
+    void shouldRankMoreSimilarTicketFirstWhenSeveralMatch() {
+        String description = "Since this morning the login page shows an error after entering my password.";
+        duplicateIndex.index(ticket(1001L, "Login broken", description + " Using Firefox on Windows.", Status.OPEN));
+        duplicateIndex.index(ticket(1002L, "Cannot log in to the portal", description, Status.IN_PROGRESS));
+
+        List<Long> candidates = duplicateIndex.findCandidates("Cannot log in to the portal", description, 5);
+
+        assertThat(candidates, contains(1002L, 1001L));
+        assertThat(duplicateIndex.findCandidates("Cannot log in to the portal", description, 1), contains(1002L));
+    }
+
+    @Test
+    void shouldDropTicketWhenClosedOrDeleted() {
+        String title = "Cannot log in to the portal";
+        String description = "Since this morning the login page shows an error after entering my password.";
+        duplicateIndex.index(ticket(1001L, title, description, Status.OPEN));
+        duplicateIndex.index(ticket(1002L, title, description, Status.OPEN));
+
+        TicketDTO closed = ticket(1001L, title, description, Status.CLOSED);
+        closed.setUpdatedAt(now.plusMinutes(1));
+        duplicateIndex.index(closed);
+        duplicateIndex.remove(1002L);
+
+        assertThat(duplicateIndex.findCandidates(title, description, 5), is(empty()));
+    }
+
+    @Test
+    void shouldReindexTicketWhenTextChangesAndIgnoreOlderUpdates() {
+        String title = "Cannot log in to the portal";
+        String description = "Since this morning the login page shows an error after entering my password.";
+        duplicateIndex.index(ticket(1003L, "Invoice total is wrong", "The March invoice charges us twice.", Status.OPEN));
+
+        TicketDTO edited = ticket(1003L, title, description, Status.OPEN);
+        edited.setUpdatedAt(now.plusMinutes(1));
+        duplicateIndex.index(edited);
+        duplicateIndex.index(ticket(1003L, "Invoice total is wrong", "The March invoice charges us twice.",
+                Status.OPEN));
+
+        assertThat(duplicateIndex.findCandidates(title, description, 5), contains(1003L));
+        assertThat(duplicateIndex.findCandidates("Invoice total is wrong", "The March invoice charges us twice.", 5),
+                is(empty()));
+    }
+
+    @Test
+    void shouldNotRestoreTicketWhenClosedOrDeletedDuringRebuild() {
+        String title = "Cannot log in to the portal";
+        String description = "Since this morning the login page shows an error after entering my password.";
+        TicketRepository pagingRepository = mock(TicketRepository.class);
+        when(pagingRepository.findDTOByStatusInAndIdGreaterThan(eq(EnumSet.of(Status.OPEN, Status.IN_PROGRESS)),
+                anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            List<TicketDTO> page = List.of(ticket(1001L, title, description, Status.OPEN),
+                    ticket(1002L, title, description, Status.OPEN));
+
+            TicketDTO closed = ticket(1001L, title, description, Status.CLOSED);
+            closed.setUpdatedAt(now.plusMinutes(1));
+            duplicateIndex.index(closed);
+            duplicateIndex.remove(1002L);
+            return page;
+        });
+
+        ReflectionTestUtils.setField(duplicateIndex, "ticketRepository", pagingRepository);
+        try {
+            duplicateIndex.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(duplicateIndex, "ticketRepository", ticketRepository);
+        }
+
+        assertThat(duplicateIndex.findCandidates(title, description, 5), is(empty()));
+    }
+
+    private TicketDTO ticket(Long id, String title, String description, Status status) {
+        return TicketDTO.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .status(status)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.peterith.supportticketportalserver.event;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TicketEventStreamTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    TicketEventStream ticketEventStream;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+
+    Authentication clientAuthentication = new UsernamePasswordAuthenticationToken(
+            client.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.CLIENT)));
+
+    Ticket ticket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.MEDIUM)
+            .author(client)
+            .agent(agent)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.save(ticket);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldStreamMatchingEventsWhenSubscribedWithFilter() throws Exception {
+        MvcResult result = subscribe(null, "category", Category.BUG.name(), "agent", agent.getUsername());
+
+        ticketService.create(CreateTicketInput.builder()
+                .title("Feature request")
+                .category(Category.FEATURE_REQUEST)
+                .build(), client.getUsername());
+        ticketService.updateById(ticket.getId(), UpdateTicketInput.builder()
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(Status.CLOSED)
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .build(), clientAuthentication);
+
+        String actual = awaitContent(result, containsString("event:updated"));
+        assertThat(actual, containsString("\"status\":\"CLOSED\""));
+        assertThat(actual, not(containsString("Feature request")));
+    }
+
+    @Test
+    void shouldReplayMissedEventsWhenSubscribedWithLastEventId() throws Exception {
+        MvcResult result = subscribe(null);
+        TicketDTO first = create("First new ticket");
+        String content = awaitContent(result, containsString("First new ticket"));
+
+        Matcher matcher = Pattern.compile("id:(\\d+)\nevent:created\ndata:\\{\"id\":" + first.getId() + ",")
+                .matcher(content);
+        assertThat(matcher.find(), is(true));
+
+        create("Second new ticket");
+
+        String actual = awaitContent(subscribe(matcher.group(1)), containsString("Second new ticket"));
+        assertThat(actual, not(containsString("First new ticket")));
+    }
+
+    @Test
+    void shouldReplayMissedEventsWhenMoreThanSubscriberQueueSize() throws Exception {
+        MvcResult result = subscribe(null);
+        TicketDTO first = create("First new ticket");
+        String content = awaitContent(result, containsString("First new ticket"));
+
+        Matcher matcher = Pattern.compile("id:(\\d+)\nevent:created\ndata:\\{\"id\":" + first.getId() + ",")
+                .matcher(content);
+        assertThat(matcher.find(), is(true));
+
+        for (int i = 1; i <= 5; i++) {
+            create("Missed ticket " + i);
+        }
+
+        int droppedSubscribers = ticketEventStream.getDroppedSubscriberCount();
+        ReflectionTestUtils.setField(ticketEventStream, "subscriberQueueSize", 2);
+        try {
+            String actual = awaitContent(subscribe(matcher.group(1)), containsString("Missed ticket 5"));
+            for (int i = 1; i <= 4; i++) {
+                assertThat(actual, containsString("Missed ticket " + i));
+            }
+            assertThat(ticketEventStream.getDroppedSubscriberCount(), is(droppedSubscribers));
+        } finally {
+            ReflectionTestUtils.setField(ticketEventStream, "subscriberQueueSize", 256);
+        }
+    }
+
+    @Test
+    void shouldSendResetWhenLastEventIdIsNoLongerBuffered() throws Exception {
+        awaitContent(subscribe("1"), containsString("event:reset"));
+    }
+
+    private TicketDTO create(String title) {
+        return ticketService.create(CreateTicketInput.builder()
+                .title(title)
+                .description("Description")
+                .category(Category.BUG)
+                .build(), client.getUsername());
+    }
+
+    private MvcResult subscribe(String lastEventId, String... params) throws Exception {
+        var request = get("/tickets/events");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitContent(MvcResult result, org.hamcrest.Matcher<String> matcher) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+
+        while (!matcher.matches(content) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+
+        assertThat(content, matcher);
+        return content;
+    }
+}
@@ -0,0 +1,146 @@
+package com.peterith.supportticketportalserver.history;
+
+import com.peterith.supportticketportalserver.dto.TicketChangeDTO;
+import com.peterith.supportticketportalserver.dto.TicketChangePage;
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketChangeRepository;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TicketHistoryWriterTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketChangeRepository ticketChangeRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    TicketHistoryWriter ticketHistoryWriter;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+
+    Authentication agentAuthentication = new UsernamePasswordAuthenticationToken(
+            agent.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.AGENT)));
+
+    Ticket ticket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.MEDIUM)
+            .author(client)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.save(ticket);
+        SecurityContextHolder.getContext().setAuthentication(agentAuthentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        ticketRepository.deleteAll();
+        ticketChangeRepository.deleteAll();
+    }
+
+    @Test
+    void shouldRecordChangedFieldsWhenTicketUpdated() throws Exception {
+        update(Status.IN_PROGRESS, agent.getUsername());
+        ticketHistoryWriter.flush();
+
+        List<TicketChangeDTO> changes = ticketService.findHistory(ticket.getId(), null, 10).getChanges();
+        assertThat(changes, hasSize(2));
+        assertThat(changes, everyItem(hasProperty("changedBy", is(agent.getUsername()))));
+        assertThat(changes, containsInAnyOrder(
+                change(TicketChange.Field.STATUS, "OPEN", "IN_PROGRESS"),
+                change(TicketChange.Field.AGENT, null, agent.getUsername())));
+    }
+
+    @Test
+    void shouldReturnHistoryNewestFirstWhenPaged() throws Exception {
+        update(Status.IN_PROGRESS, null);
+        update(Status.RESOLVED, null);
+        ticketHistoryWriter.flush();
+
+        TicketChangePage page = ticketService.findHistory(ticket.getId(), null, 1);
+        assertThat(page.getChanges().get(0).getNewValue(), is(Status.RESOLVED.name()));
+
+        mockMvc.perform(get("/tickets/" + ticket.getId() + "/history")
+                .param("cursor", page.getNextCursor().toString())
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].field").value(TicketChange.Field.STATUS.name()))
+                .andExpect(jsonPath("$[0].newValue").value(Status.IN_PROGRESS.name()));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenHistoryCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/tickets/" + ticket.getId() + "/history").param("cursor", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenHistoryOfUnknownTicket() throws Exception {
+        mockMvc.perform(get("/tickets/" + (ticket.getId() + 1000) + "/history"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnOnceChangesWrittenWhenFlush() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            update(i % 2 == 0 ? Status.IN_PROGRESS : Status.OPEN, null);
+        }
+        ticketHistoryWriter.flush();
+
+        assertThat(ticketChangeRepository.count(), is(20L));
+    }
+
+    private void update(Status status, String agent) {
+        ticketService.updateById(ticket.getId(), UpdateTicketInput.builder()
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(status)
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .agent(agent)
+                .build(), agentAuthentication);
+    }
+
+    private org.hamcrest.Matcher<Object> change(TicketChange.Field field, String oldValue, String newValue) {
+        return allOf(
+                hasProperty("field", is(field)),
+                hasProperty("oldValue", is(oldValue)),
+                hasProperty("newValue", is(newValue)));
+    }
+}
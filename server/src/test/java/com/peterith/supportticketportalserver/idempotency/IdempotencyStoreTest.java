@@ -0,0 +1,153 @@
+package com.peterith.supportticketportalserver.idempotency;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyInUseException;
+import com.peterith.supportticketportalserver.exception.IdempotencyKeyReusedException;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class IdempotencyStoreTest {
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    CreateTicketInput input = CreateTicketInput.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .category(Category.BUG)
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldWaitForInFlightCreateWhenDuplicateArrives() throws Exception {
+        String key = UUID.randomUUID().toString();
+        TicketDTO dto = TicketDTO.builder().id(1L).title(input.getTitle()).build();
+        AtomicInteger creates = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<TicketDTO> first = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.create("noobMaster", key, input, () -> {
+                    creates.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return dto;
+                }));
+        started.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<TicketDTO> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.create("noobMaster", key, input, () -> {
+                    creates.incrementAndGet();
+                    return TicketDTO.builder().id(2L).build();
+                }));
+        Thread.sleep(100);
+        assertThat(duplicate.isDone(), is(false));
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS), is(sameInstance(dto)));
+        assertThat(duplicate.get(5, TimeUnit.SECONDS), is(sameInstance(dto)));
+        assertThat(creates.get(), is(1));
+    }
+
+    @Test
+    void shouldCreateAgainWhenFirstAttemptFailed() {
+        String key = UUID.randomUUID().toString();
+        TicketDTO dto = TicketDTO.builder().id(1L).build();
+
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.create("noobMaster", key, input, () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertThat(idempotencyStore.create("noobMaster", key, input, () -> dto), is(sameInstance(dto)));
+    }
+
+    @Test
+    void shouldKeepKeysSeparateWhenUsersDiffer() {
+        String key = UUID.randomUUID().toString();
+        TicketDTO clientDTO = TicketDTO.builder().id(1L).build();
+        TicketDTO agentDTO = TicketDTO.builder().id(2L).build();
+
+        assertThat(idempotencyStore.create("noobMaster", key, input, () -> clientDTO), is(sameInstance(clientDTO)));
+        assertThat(idempotencyStore.create("agent007", key, input, () -> agentDTO), is(sameInstance(agentDTO)));
+    }
+
+    @Test
+    void shouldReturnStoredTicketWhenKeyWasUsedOnAnotherInstance() {
+        String key = UUID.randomUUID().toString();
+        TicketDTO stored = ticketService.create(input, "noobMaster", key);
+
+        TicketDTO retried = idempotencyStore.create("noobMaster", key, input, () -> {
+            throw new IllegalStateException();
+        });
+        assertThat(retried.getId(), is(stored.getId()));
+        assertThat(ticketRepository.count(), is(1L));
+
+        CreateTicketInput other = CreateTicketInput.builder().title("Ticket 2").category(Category.BUG).build();
+        assertThrows(IdempotencyKeyReusedException.class, () ->
+                idempotencyStore.create("noobMaster", key, other, () -> ticketService.create(other, "noobMaster")));
+    }
+
+    @Test
+    void shouldReturnWinnerWhenAnotherInstanceInsertsKeyFirst() {
+        String key = UUID.randomUUID().toString();
+        List<TicketDTO> winner = new ArrayList<>();
+
+        TicketDTO dto = idempotencyStore.create("noobMaster", key, input, () -> {
+            winner.add(ticketService.create(input, "noobMaster", key));
+            return ticketService.create(input, "noobMaster", key);
+        });
+
+        assertThat(winner.get(0).getId(), is(notNullValue()));
+        assertThat(dto.getId(), is(winner.get(0).getId()));
+        assertThat(ticketRepository.count(), is(1L));
+    }
+
+    @Test
+    void shouldAskToRetryWhenKeyConflictsButWinnerCannotBeRead() {
+        String key = UUID.randomUUID().toString();
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> idempotencyStore.create("noobMaster", key, input, () -> {
+            throw new DataIntegrityViolationException("ticket_author_id_idempotency_key_idx");
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.peterith.supportticketportalserver.metrics;
+
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+
+    Ticket ticket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.MEDIUM)
+            .author(client)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.save(ticket);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldRecordStatementsAndEntityLoadsWhenGetTicket() throws Exception {
+        mockMvc.perform(get("/tickets/" + ticket.getId())).andExpect(status().isOk());
+
+        DistributionSummary actual1 = meterRegistry.get("http.server.requests.statements")
+                .tags("method", "GET", "uri", "/tickets/{id}", "status", "200")
+                .summary();
+        assertThat(actual1.count(), is(greaterThanOrEqualTo(1L)));
+        assertThat(actual1.max(), is(2.0));
+
+        DistributionSummary actual2 = meterRegistry.get("http.server.requests.entity.loads")
+                .tags("method", "GET", "uri", "/tickets/{id}", "status", "200")
+                .summary();
+        assertThat(actual2.max(), is(0.0));
+    }
+
+    @Test
+    void shouldExposePrometheusMetricsWhenScraped() throws Exception {
+        mockMvc.perform(post("/authenticate")
+                .contentType("application/json")
+                .content("{\"username\":\"noobMaster\",\"password\":\"password\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tickets")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_count"),
+                        containsString("http_server_requests_statements_bucket"),
+                        containsString("jwt_sign_seconds_count"),
+                        containsString("jwt_verify_seconds_bucket"),
+                        containsString("cache_gets_total{cache=\"users\""),
+                        containsString("cache_gets_total{cache=\"jwtVerifiedTokens\""),
+                        containsString("hikaricp_connections_pending"),
+                        containsString("hibernate_statements_total"),
+                        containsString("hibernate_entities_loads_total"))));
+    }
+}
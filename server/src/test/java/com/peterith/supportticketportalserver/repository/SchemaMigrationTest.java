@@ -0,0 +1,74 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.history.TicketHistoryWriter;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Priority;
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.Status;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Starts from the original schema, applies the V2 migration and lets Hibernate validate the entities against it,
+ * with the MySQL dialect used in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migration;MODE=MySQL",
+        "spring.datasource.schema=classpath:db/V1__baseline.sql,classpath:db/migration/V2__ticket_ids_history_and_indexes.sql",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+class SchemaMigrationTest {
+
+    private static final long EXISTING_TICKET_ID = 120L;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    TicketChangeRepository ticketChangeRepository;
+
+    @Autowired
+    TicketHistoryWriter ticketHistoryWriter;
+
+    Authentication agentAuthentication = new UsernamePasswordAuthenticationToken(
+            "agent007", null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.AGENT)));
+
+    @Test
+    void shouldAllocateIdsAboveExistingTicketsWhenCreateAfterMigration() throws InterruptedException {
+        TicketDTO existing = ticketService.findById(EXISTING_TICKET_ID).orElseThrow();
+        assertThat(existing.getVersion(), is(0L));
+
+        TicketDTO created = ticketService.create(CreateTicketInput.builder()
+                .title("Ticket after migration")
+                .category(Category.ACCOUNT)
+                .build(), "noobMaster", "key-1");
+        assertThat(created.getId(), is(greaterThan(EXISTING_TICKET_ID)));
+
+        TicketDTO updated = ticketService.updateById(EXISTING_TICKET_ID, UpdateTicketInput.builder()
+                .title(existing.getTitle())
+                .description(existing.getDescription())
+                .status(Status.IN_PROGRESS)
+                .category(existing.getCategory())
+                .priority(Priority.MEDIUM)
+                .agent(existing.getAgent())
+                .build(), agentAuthentication, 0L);
+        assertThat(updated.getVersion(), is(1L));
+
+        ticketHistoryWriter.flush();
+        assertThat(ticketChangeRepository.count(), is(1L));
+    }
+}
@@ -0,0 +1,194 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketField;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+class TicketRepositoryTest {
+
+    private static final int LISTING_LIMIT = 100;
+    private static final Pattern TICKET_LOOKUP = Pattern.compile("\"TICKET0_\"\\s+/\\* PUBLIC\\.\\w+: (\\w+) = ");
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+
+    Ticket ticket1 = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.HIGH)
+            .author(client)
+            .agent(agent)
+            .build();
+
+    Ticket ticket2 = Ticket.builder()
+            .title("Ticket 2")
+            .description("Description 2")
+            .status(Status.OPEN)
+            .category(Category.ACCOUNT)
+            .priority(Priority.LOW)
+            .author(client)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.saveAll(List.of(ticket1, ticket2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadUpdatedAtIndexInOrderWhenListingUnfiltered() {
+        String plan = explainListing(new TicketFilter());
+
+        assertThat(plan, containsString("TICKET_UPDATED_AT_ID_IDX"));
+        assertThat(plan, containsString("INDEX SORTED"));
+    }
+
+    @Test
+    void shouldLookUpStatusIndexWhenListingByStatus() {
+        String plan = explainListing(TicketFilter.builder().status(Status.OPEN).build());
+
+        assertThat(plan, containsString("TICKET_STATUS_UPDATED_AT_ID_IDX: STATUS = ?1"));
+        assertThat(ticketIndexes(), hasItem(List.of("STATUS", "UPDATED_AT", "ID")));
+    }
+
+    @Test
+    void shouldLookUpStatusPriorityIndexWhenListingByStatusAndPriority() {
+        String plan = explainListing(TicketFilter.builder().status(Status.OPEN).priority(Priority.HIGH).build());
+
+        assertThat(plan, containsString("TICKET_STATUS_PRIORITY_UPDATED_AT_ID_IDX: STATUS = ?1"));
+        assertThat(ticketIndexes(), hasItem(List.of("STATUS", "PRIORITY", "UPDATED_AT", "ID")));
+    }
+
+    @Test
+    void shouldLookUpAgentIndexWhenListingByAgent() {
+        String plan = explainListing(TicketFilter.builder().agent(agent.getUsername()).build());
+
+        assertThat(ticketLookupColumn(plan), is("AGENT_ID"));
+        assertThat(ticketIndexes(), hasItem(List.of("AGENT_ID", "UPDATED_AT", "ID")));
+    }
+
+    @Test
+    void shouldLookUpAuthorIndexWhenListingByAuthor() {
+        String plan = explainListing(TicketFilter.builder().author(client.getUsername()).build());
+
+        assertThat(ticketLookupColumn(plan), is("AUTHOR_ID"));
+        assertThat(ticketIndexes(), hasItem(List.of("AUTHOR_ID", "UPDATED_AT", "ID")));
+    }
+
+    @Test
+    void shouldUseTicketIdIndexWhenReadingHistory() {
+        String plan = explain("SELECT c.id FROM ticket_change c WHERE c.ticket_id = 1 ORDER BY c.id DESC LIMIT 100");
+
+        assertThat(plan, containsString("TICKET_CHANGE_TICKET_ID_ID_IDX"));
+    }
+
+    @Test
+    void shouldOnlyReturnMatchingTicketsWhenFindDTOPageWithSpecification() {
+        TicketFilter filter = TicketFilter.builder().status(Status.OPEN).agent(agent.getUsername()).build();
+
+        List<TicketDTO> dtos = ticketRepository.findDTOPage(TicketSpecifications.matching(filter), 10);
+        assertThat(dtos, hasSize(1));
+        assertThat(dtos.get(0).getId(), is(ticket1.getId()));
+        assertThat(dtos.get(0).getAgent(), is(agent.getUsername()));
+
+        List<TicketDTO> all = ticketRepository.findDTOPage(TicketSpecifications.matching(new TicketFilter()), 10);
+        assertThat(all, hasSize(2));
+        assertThat(ticketRepository.count(TicketSpecifications.hasPriority(Priority.LOW)), is(1L));
+    }
+
+    @Test
+    void shouldOnlyLoadRequestedFieldsWhenFindDTOPageWithFields() {
+        List<TicketDTO> dtos = ticketRepository.findDTOPage(TicketSpecifications.hasPriority(Priority.HIGH),
+                TicketField.parse("title,agent"), 10);
+
+        assertThat(dtos, hasSize(1));
+        assertThat(dtos.get(0).getId(), is(ticket1.getId()));
+        assertThat(dtos.get(0).getTitle(), is(ticket1.getTitle()));
+        assertThat(dtos.get(0).getAgent(), is(agent.getUsername()));
+        assertThat(dtos.get(0).getUpdatedAt(), is(notNullValue()));
+        assertThat(dtos.get(0).getDescription(), is(nullValue()));
+        assertThat(dtos.get(0).getAuthor(), is(nullValue()));
+    }
+
+    /**
+     * Runs the listing query for the filter, captures the SQL Hibernate generated for it and explains that, with the
+     * filter values bound in the order the specifications add them.
+     */
+    private String explainListing(TicketFilter filter) {
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            ticketRepository.findDTOPage(TicketSpecifications.matching(filter), LISTING_LIMIT);
+            String sql = jdbcTemplate.queryForObject("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS " +
+                    "WHERE SQL_STATEMENT LIKE 'select % order by % limit ?'", String.class);
+
+            List<Object> parameters = Stream.of(filter.getStatus(), filter.getCategory(), filter.getPriority(),
+                    filter.getAuthor(), filter.getAgent())
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .collect(Collectors.toList());
+            parameters.add(LISTING_LIMIT);
+            return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters.toArray()).toUpperCase();
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+
+    /**
+     * The first column the plan looks the ticket table up by, or null when it scans the table.
+     */
+    private static String ticketLookupColumn(String plan) {
+        Matcher matcher = TICKET_LOOKUP.matcher(plan);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * The columns of each index on the ticket table. H2 only reads an index in order when the ORDER BY columns lead
+     * it, so for filtered listings this checks what MySQL needs instead: the equality columns followed by the sort
+     * columns.
+     */
+    private List<List<String>> ticketIndexes() {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT INDEX_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_NAME = 'TICKET' ORDER BY INDEX_NAME, ORDINAL_POSITION", resultSet -> {
+            indexes.computeIfAbsent(resultSet.getString(1), name -> new ArrayList<>()).add(resultSet.getString(2));
+        });
+        return new ArrayList<>(indexes.values());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+}
@@ -0,0 +1,36 @@
+package com.peterith.supportticketportalserver.repository;
+
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+class UserRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void shouldPersistChangesWhenSaveAndDeleteUser() {
+        User user = userRepository.save(User.builder()
+                .username("agent009")
+                .password("{noop}password")
+                .role(Role.CLIENT)
+                .build());
+        assertThat(userRepository.findByUsername("agent009").get().getRole(), is(Role.CLIENT));
+
+        user.setRole(Role.AGENT);
+        userRepository.save(user);
+        assertThat(userRepository.findById(user.getId()).get().getRole(), is(Role.AGENT));
+        assertThat(userRepository.findByUsername("agent009").get().getRole(), is(Role.AGENT));
+
+        userRepository.deleteById(user.getId());
+        assertThat(userRepository.findById(user.getId()).isPresent(), is(false));
+        assertThat(userRepository.findByUsername("agent009").isPresent(), is(false));
+    }
+}
@@ -0,0 +1,94 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.model.Category;
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.util.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.peterith.supportticketportalserver.util.TestUtils.toJSONString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtRequestFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @SpyBean
+    UserDetailsService userDetailsService;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+
+    CreateTicketInput input = CreateTicketInput.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .category(Category.BUG)
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        String jws = jwtUtils.generateJWS(new MyUserDetails(client));
+
+        mockMvc.perform(post("/tickets")
+                .header("Authorization", "Bearer " + jws)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isOk());
+
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void shouldReturnUnauthorizedWhenTokenSignatureInvalid() throws Exception {
+        String jws = jwtUtils.generateJWS(new MyUserDetails(client));
+        String tampered = jws.substring(0, jws.length() - 2) + (jws.endsWith("AA") ? "BB" : "AA");
+
+        mockMvc.perform(post("/tickets")
+                .header("Authorization", "Bearer " + tampered)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldReuseVerifiedTokenWhenVerifyRequestHeaderTwice() {
+        String header = "Bearer " + jwtUtils.generateJWS(new MyUserDetails(client));
+
+        VerifiedToken actual1 = jwtUtils.verifyRequestHeader(header);
+        VerifiedToken actual2 = jwtUtils.verifyRequestHeader(header);
+
+        assertThat(actual1.getUsername(), is(client.getUsername()));
+        assertThat(actual1.getRole(), is(Role.CLIENT));
+        assertThat(actual2, is(sameInstance(actual1)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.peterith.supportticketportalserver.security;
+
+import com.peterith.supportticketportalserver.dto.AuthenticationInput;
+import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.util.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.peterith.supportticketportalserver.util.TestUtils.toJSONString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.forward-headers-strategy=native",
+        "rate-limit.endpoints[0].method=POST",
+        "rate-limit.endpoints[0].path=/authenticate",
+        "rate-limit.endpoints[0].requests=2",
+        "rate-limit.endpoints[0].period=1h",
+        "rate-limit.endpoints[1].method=GET",
+        "rate-limit.endpoints[1].path=/tickets",
+        "rate-limit.endpoints[1].requests=3",
+        "rate-limit.endpoints[1].period=1h"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+
+    @Test
+    void shouldReturnTooManyRequestsWithRetryAfterWhenClientIpExceedsLimit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/tickets").with(remoteAddr("10.0.0.1"))).andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/tickets").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1200"));
+        mockMvc.perform(get("/tickets").with(remoteAddr("10.0.0.2"))).andExpect(status().isOk());
+        mockMvc.perform(get("/tickets/stats").with(remoteAddr("10.0.0.1"))).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldLimitByForwardedClientIpWhenBehindProxy() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(getTickets("203.0.113.5"), is(HttpStatus.OK));
+        }
+
+        assertThat(getTickets("203.0.113.5"), is(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(getTickets("198.51.100.1, 203.0.113.5"), is(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(getTickets("203.0.113.5, 10.0.0.7"), is(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(getTickets("203.0.113.6"), is(HttpStatus.OK));
+    }
+
+    @Test
+    void shouldLimitBySubjectWhenAuthenticated() throws Exception {
+        String clientHeader = "Bearer " + jwtUtils.generateJWS(new MyUserDetails(client));
+        String agentHeader = "Bearer " + jwtUtils.generateJWS(new MyUserDetails(agent));
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/tickets").header("Authorization", clientHeader).with(remoteAddr("10.0.1." + i)))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/tickets").header("Authorization", clientHeader).with(remoteAddr("10.0.1.9")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/tickets").header("Authorization", agentHeader).with(remoteAddr("10.0.1.9")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldLimitAuthenticateByClientIp() throws Exception {
+        AuthenticationInput input = AuthenticationInput.builder()
+                .username(client.getUsername())
+                .password("wrong password")
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/authenticate")
+                    .with(remoteAddr("10.0.2.1"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJSONString(input)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/authenticate")
+                .with(remoteAddr("10.0.2.1"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJSONString(input)))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void shouldRefillTokensOverTimeWhenAcquiring() {
+        RateLimiter limiter = new RateLimiter(2, Duration.ofSeconds(1), 2, 10);
+
+        assertThat(limiter.tryAcquire("key", 0), is(0L));
+        assertThat(limiter.tryAcquire("key", 0), is(0L));
+        assertThat(limiter.tryAcquire("key", 0), is(TimeUnit.MILLISECONDS.toNanos(500)));
+        assertThat(limiter.tryAcquire("other", 0), is(0L));
+        assertThat(limiter.tryAcquire("key", TimeUnit.MILLISECONDS.toNanos(500)), is(0L));
+        assertThat(limiter.tryAcquire("key", TimeUnit.MILLISECONDS.toNanos(500)),
+                is(TimeUnit.MILLISECONDS.toNanos(500)));
+    }
+
+    private HttpStatus getTickets(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", forwardedFor);
+        return restTemplate.exchange("/tickets", HttpMethod.GET, new HttpEntity<>(headers), String.class)
+                .getStatusCode();
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -1,9 +1,13 @@
 package com.peterith.supportticketportalserver.service;
 
 import com.peterith.supportticketportalserver.model.Role;
+import com.peterith.supportticketportalserver.model.User;
+import com.peterith.supportticketportalserver.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,7 +16,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -20,6 +24,12 @@ class MyUserDetailsServiceTest {
     @Autowired
     UserDetailsService userDetailsService;
 
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
     @Test
     void shouldReturnUserDetailsWhenLoadByUsername() {
         UserDetails userDetails = userDetailsService.loadUserByUsername("noobMaster");
@@ -35,4 +45,26 @@ class MyUserDetailsServiceTest {
         assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("unknown"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldCacheUserWhenLoadByUsername() {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_CACHE);
+        cache.evict("agent007");
+
+        userDetailsService.loadUserByUsername("agent007");
+        User cached = (User) cache.get("agent007").get();
+
+        assertThat(cached.getUsername(), is("agent007"));
+        assertThat(userRepository.findByUsername("agent007").get(), is(sameInstance(cached)));
+    }
+
+    @Test
+    void shouldEvictCachedUserWhenSaved() {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_CACHE);
+        User user = userRepository.findByUsername("agent007").get();
+        assertThat(cache.get("agent007"), is(notNullValue()));
+
+        userRepository.save(user);
+
+        assertThat(cache.get("agent007"), is(nullValue()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.peterith.supportticketportalserver.service;
+
+import com.peterith.supportticketportalserver.dto.ImportReport;
+import com.peterith.supportticketportalserver.dto.TicketFileFormat;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(properties = "import.batch-size=2")
+class TicketImportServiceImplTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketImportService ticketImportService;
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldImportTicketsWhenImportNdjson() throws Exception {
+        String content = "{\"title\":\"Ticket 1\",\"description\":\"Description 1\",\"category\":\"BUG\"," +
+                "\"author\":\"noobMaster\",\"agent\":\"agent007\",\"status\":\"IN_PROGRESS\"}\n" +
+                "{\"title\":\"Ticket 2\",\"category\":\"ACCOUNT\",\"author\":\"unknown\"}\n" +
+                "{\"title\":\"Ticket 3\",\"category\":\"FEATURE_REQUEST\",\"priority\":\"HIGH\"," +
+                "\"author\":\"noobMaster\"}\n";
+
+        ImportReport actual1 = ticketImportService.importTickets(toInputStream(content), TicketFileFormat.NDJSON);
+        assertThat(actual1.getImported(), is(2L));
+        assertThat(actual1.getFailed(), is(1L));
+        assertThat(actual1.getErrors(), is(List.of("row 2: author: unknown username")));
+        assertThat(actual1.getRowsPerSecond(), is(greaterThan(0.0)));
+
+        List<Ticket> actual2 = ticketRepository.findAll();
+        assertThat(actual2, hasSize(2));
+        assertThat(actual2, hasItem(allOf(
+                hasProperty("title", is("Ticket 1")),
+                hasProperty("status", is(Status.IN_PROGRESS)),
+                hasProperty("priority", is(Priority.MEDIUM)))));
+        assertThat(actual2, hasItem(allOf(
+                hasProperty("title", is("Ticket 3")),
+                hasProperty("status", is(Status.OPEN)),
+                hasProperty("priority", is(Priority.HIGH)),
+                hasProperty("agent", is(nullValue())))));
+    }
+
+    @Test
+    void shouldImportTicketsWhenImportCsv() throws Exception {
+        String content = "id,title,description,status,category,priority,author,agent\n" +
+                "1,Ticket 1,\"Line 1, \"\"quoted\"\"\nLine 2\",OPEN,BUG,LOW,noobMaster,\n" +
+                "2,Ticket 2,Description 2,OPEN,UNKNOWN,LOW,noobMaster,\n" +
+                "3,T,Description 3,OPEN,BUG,LOW,noobMaster,\n";
+
+        ImportReport actual1 = ticketImportService.importTickets(toInputStream(content), TicketFileFormat.CSV);
+        assertThat(actual1.getImported(), is(1L));
+        assertThat(actual1.getFailed(), is(2L));
+        assertThat(actual1.getErrors().get(0), is("row 2: category: unknown value"));
+        assertThat(actual1.getErrors().get(1), startsWith("row 3: title: "));
+
+        List<Ticket> actual2 = ticketRepository.findAll();
+        assertThat(actual2, hasSize(1));
+        assertThat(actual2.get(0).getDescription(), is("Line 1, \"quoted\"\nLine 2"));
+        assertThat(actual2.get(0).getCategory(), is(Category.BUG));
+        assertThat(actual2.get(0).getAuthor().getUsername(), is("noobMaster"));
+    }
+
+    @Test
+    void shouldKeepTimestampsWhenImportRowHasThem() throws Exception {
+        String content = "{\"title\":\"Ticket 1\",\"category\":\"BUG\",\"author\":\"noobMaster\"," +
+                "\"createdAt\":\"2020-01-02T03:04:05\"}\n" +
+                "{\"title\":\"Ticket 2\",\"category\":\"BUG\",\"author\":\"noobMaster\"," +
+                "\"createdAt\":\"2020-01-02T03:04:05\",\"updatedAt\":\"2020-02-03T04:05:06\"}\n" +
+                "{\"title\":\"Ticket 3\",\"category\":\"BUG\",\"author\":\"noobMaster\"," +
+                "\"createdAt\":\"yesterday\"}\n";
+
+        ImportReport actual1 = ticketImportService.importTickets(toInputStream(content), TicketFileFormat.NDJSON);
+        assertThat(actual1.getImported(), is(2L));
+        assertThat(actual1.getErrors(), is(List.of("row 3: createdAt: invalid date-time")));
+
+        List<Ticket> actual2 = ticketRepository.findAll();
+        assertThat(actual2, hasItem(allOf(
+                hasProperty("title", is("Ticket 1")),
+                hasProperty("createdAt", is(LocalDateTime.of(2020, 1, 2, 3, 4, 5))),
+                hasProperty("updatedAt", is(LocalDateTime.of(2020, 1, 2, 3, 4, 5))))));
+        assertThat(actual2, hasItem(allOf(
+                hasProperty("title", is("Ticket 2")),
+                hasProperty("createdAt", is(LocalDateTime.of(2020, 1, 2, 3, 4, 5))),
+                hasProperty("updatedAt", is(LocalDateTime.of(2020, 2, 3, 4, 5, 6))))));
+    }
+
+    private ByteArrayInputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
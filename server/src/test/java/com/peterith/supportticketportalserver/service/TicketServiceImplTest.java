@@ -1,11 +1,16 @@
 package com.peterith.supportticketportalserver.service;
 
+import com.peterith.supportticketportalserver.dto.BatchTicketInput;
+import com.peterith.supportticketportalserver.dto.BatchTicketResult;
 import com.peterith.supportticketportalserver.dto.CreateTicketInput;
 import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketFilter;
+import com.peterith.supportticketportalserver.dto.TicketPage;
 import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
 import com.peterith.supportticketportalserver.exception.AgentNotFoundException;
 import com.peterith.supportticketportalserver.exception.AuthorNotFoundException;
 import com.peterith.supportticketportalserver.exception.ForbiddenException;
+import com.peterith.supportticketportalserver.exception.VersionMismatchException;
 import com.peterith.supportticketportalserver.model.*;
 import com.peterith.supportticketportalserver.repository.TicketRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -13,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -86,6 +92,42 @@ class TicketServiceImplTest {
         assertThat(actual.get(0).getUpdatedAt(), is(ticket.getUpdatedAt()));
     }
 
+    @Test
+    void shouldReturnFilteredPageWhenFindPage() {
+        TicketFilter matchingFilter = TicketFilter.builder().category(Category.BUG).author(client.getUsername()).build();
+        TicketPage actual1 = ticketService.findPage(matchingFilter, null, 10);
+        assertThat(actual1.getTickets(), hasSize(1));
+        assertThat(actual1.getTickets().get(0).getId(), is(ticket.getId()));
+        assertThat(actual1.getNextCursor(), is(nullValue()));
+
+        TicketFilter nonMatchingFilter = TicketFilter.builder().priority(Priority.HIGH).build();
+        TicketPage actual2 = ticketService.findPage(nonMatchingFilter, null, 10);
+        assertThat(actual2.getTickets(), is(empty()));
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenFindPageAndMorePages() {
+        Ticket newerTicket = ticketRepository.save(Ticket.builder()
+                .title("Ticket 2")
+                .description("Description 2")
+                .status(Status.OPEN)
+                .category(Category.ACCOUNT)
+                .priority(Priority.LOW)
+                .author(client)
+                .build());
+        TicketFilter filter = TicketFilter.builder().build();
+
+        TicketPage actual1 = ticketService.findPage(filter, null, 1);
+        assertThat(actual1.getTickets(), hasSize(1));
+        assertThat(actual1.getTickets().get(0).getId(), is(newerTicket.getId()));
+        assertThat(actual1.getNextCursor().getId(), is(newerTicket.getId()));
+
+        TicketPage actual2 = ticketService.findPage(filter, actual1.getNextCursor(), 1);
+        assertThat(actual2.getTickets(), hasSize(1));
+        assertThat(actual2.getTickets().get(0).getId(), is(ticket.getId()));
+        assertThat(actual2.getNextCursor(), is(nullValue()));
+    }
+
     @Test
     void shouldReturnTicketWhenFindById() {
         Optional<TicketDTO> actual = ticketService.findById(ticket.getId());
@@ -109,6 +151,38 @@ class TicketServiceImplTest {
         assertThat(actual, is(expected));
     }
 
+    @Test
+    void shouldReturnRankedTicketsWhenSearch() {
+        TicketDTO loginTicket = ticketService.create(CreateTicketInput.builder()
+                .title("Cannot login")
+                .description("The login page shows an error")
+                .category(Category.ACCOUNT)
+                .build(), client.getUsername());
+        TicketDTO exportTicket = ticketService.create(CreateTicketInput.builder()
+                .title("Export fails")
+                .description("After login the export button does nothing")
+                .category(Category.BUG)
+                .build(), client.getUsername());
+        TicketFilter filter = TicketFilter.builder().build();
+
+        List<TicketDTO> actual1 = ticketService.search("login", filter, 10);
+        assertThat(actual1, hasSize(2));
+        assertThat(actual1.get(0).getId(), is(loginTicket.getId()));
+        assertThat(actual1.get(1).getId(), is(exportTicket.getId()));
+
+        List<TicketDTO> actual2 = ticketService.search("login exp", filter, 10);
+        assertThat(actual2, hasSize(1));
+        assertThat(actual2.get(0).getId(), is(exportTicket.getId()));
+
+        List<TicketDTO> actual3 = ticketService.search("login", TicketFilter.builder().category(Category.ACCOUNT).build(), 10);
+        assertThat(actual3, hasSize(1));
+        assertThat(actual3.get(0).getId(), is(loginTicket.getId()));
+
+        ticketService.deleteById(loginTicket.getId(), client.getUsername());
+        List<TicketDTO> actual4 = ticketService.search("cannot", filter, 10);
+        assertThat(actual4, is(empty()));
+    }
+
     @Test
     void shouldReturnTicketWhenCreate() throws AuthorNotFoundException {
         CreateTicketInput input = CreateTicketInput.builder()
@@ -124,7 +198,7 @@ class TicketServiceImplTest {
         assertThat(actual1.getCategory(), is(input.getCategory()));
         assertThat(actual1.getPriority(), is(Priority.MEDIUM));
         assertThat(actual1.getAuthor(), is(client.getUsername()));
-        assertThat(actual1.getAgent(), is(nullValue()));
+        assertThat(actual1.getAgent(), is(agent.getUsername()));
         assertThat(actual1.getCreatedAt(), isA(LocalDateTime.class));
         assertThat(actual1.getUpdatedAt(), isA(LocalDateTime.class));
 
@@ -135,7 +209,7 @@ class TicketServiceImplTest {
         assertThat(actual2.get().getCategory(), is(input.getCategory()));
         assertThat(actual2.get().getPriority(), is(Priority.MEDIUM));
         assertThat(actual2.get().getAuthor(), is(client));
-        assertThat(actual2.get().getAgent(), is(nullValue()));
+        assertThat(actual2.get().getAgent(), is(agent));
         assertThat(actual2.get().getCreatedAt(), isA(LocalDateTime.class));
         assertThat(actual2.get().getUpdatedAt(), isA(LocalDateTime.class));
     }
@@ -249,6 +323,59 @@ class TicketServiceImplTest {
         assertThrows(NoSuchElementException.class, () -> ticketService.updateById(0L, input, clientAuthentication));
     }
 
+    @Test
+    void shouldIncrementVersionWhenUpdateByIdAndVersionMatches() {
+        UpdateTicketInput input = UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description("New Description 1")
+                .status(Status.CLOSED)
+                .category(Category.TECHNICAL_ISSUE)
+                .priority(Priority.HIGH)
+                .build();
+
+        TicketDTO actual = ticketService.updateById(ticket.getId(), input, clientAuthentication, ticket.getVersion());
+        assertThat(actual.getVersion(), is(ticket.getVersion() + 1));
+    }
+
+    @Test
+    void shouldThrowWhenUpdateByIdAndVersionMismatch() {
+        UpdateTicketInput input = UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description("New Description 1")
+                .status(Status.CLOSED)
+                .category(Category.TECHNICAL_ISSUE)
+                .priority(Priority.HIGH)
+                .build();
+
+        assertThrows(VersionMismatchException.class, () ->
+                ticketService.updateById(ticket.getId(), input, clientAuthentication, ticket.getVersion() + 1));
+        assertThat(ticketRepository.findById(ticket.getId()).get().getTitle(), is(ticket.getTitle()));
+    }
+
+    @Test
+    void shouldThrowWhenSaveStaleTicketAfterUpdateById() {
+        Ticket staleTicket = ticketRepository.findById(ticket.getId()).get();
+        UpdateTicketInput input = UpdateTicketInput.builder()
+                .title("New Ticket 1")
+                .description("New Description 1")
+                .status(Status.CLOSED)
+                .category(Category.TECHNICAL_ISSUE)
+                .priority(Priority.HIGH)
+                .build();
+        ticketService.updateById(ticket.getId(), input, clientAuthentication);
+
+        staleTicket.setTitle("Stale Ticket 1");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> ticketRepository.save(staleTicket));
+        assertThat(ticketRepository.findById(ticket.getId()).get().getTitle(), is(input.getTitle()));
+    }
+
+    @Test
+    void shouldThrowWhenDeleteByIdAndVersionMismatch() {
+        assertThrows(VersionMismatchException.class, () ->
+                ticketService.deleteById(ticket.getId(), client.getUsername(), ticket.getVersion() + 1));
+        assertThat(ticketRepository.existsById(ticket.getId()), is(true));
+    }
+
     @Test
     void shouldThrowWhenUpdateByIdAndFailTitleValidation() {
         UpdateTicketInput input = UpdateTicketInput.builder()
@@ -388,4 +515,69 @@ class TicketServiceImplTest {
         assertThrows(ForbiddenException.class,
                 () -> ticketService.updateById(ticket.getId(), input, agentAuthentication));
     }
+
+    @Test
+    void shouldReturnResultPerIdWhenApplyBatchUpdate() {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of(ticket.getId(), 0L))
+                .action(BatchTicketInput.Action.UPDATE)
+                .status(Status.IN_PROGRESS)
+                .agent(agent.getUsername())
+                .build();
+
+        List<BatchTicketResult> actual1 = ticketService.applyBatch(input, agentAuthentication);
+        assertThat(actual1, hasSize(2));
+        assertThat(actual1.get(0).getId(), is(ticket.getId()));
+        assertThat(actual1.get(0).getOutcome(), is(BatchTicketResult.Outcome.UPDATED));
+        assertThat(actual1.get(0).getTicket().getStatus(), is(Status.IN_PROGRESS));
+        assertThat(actual1.get(1).getId(), is(0L));
+        assertThat(actual1.get(1).getOutcome(), is(BatchTicketResult.Outcome.NOT_FOUND));
+        assertThat(actual1.get(1).getTicket(), is(nullValue()));
+
+        Optional<Ticket> actual2 = ticketRepository.findById(ticket.getId());
+        assertThat(actual2.get().getStatus(), is(Status.IN_PROGRESS));
+        assertThat(actual2.get().getPriority(), is(ticket.getPriority()));
+    }
+
+    @Test
+    void shouldReturnForbiddenResultWhenApplyBatchUpdateAndNonAuthorChangesPriority() {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of(ticket.getId()))
+                .action(BatchTicketInput.Action.UPDATE)
+                .priority(Priority.HIGH)
+                .build();
+
+        List<BatchTicketResult> actual1 = ticketService.applyBatch(input, agentAuthentication);
+        assertThat(actual1.get(0).getOutcome(), is(BatchTicketResult.Outcome.FORBIDDEN));
+
+        Optional<Ticket> actual2 = ticketRepository.findById(ticket.getId());
+        assertThat(actual2.get().getPriority(), is(ticket.getPriority()));
+    }
+
+    @Test
+    void shouldDeleteTicketsWhenApplyBatchDelete() {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of(ticket.getId()))
+                .action(BatchTicketInput.Action.DELETE)
+                .build();
+
+        List<BatchTicketResult> actual1 = ticketService.applyBatch(input, agentAuthentication);
+        assertThat(actual1.get(0).getOutcome(), is(BatchTicketResult.Outcome.FORBIDDEN));
+
+        List<BatchTicketResult> actual2 = ticketService.applyBatch(input, clientAuthentication);
+        assertThat(actual2.get(0).getOutcome(), is(BatchTicketResult.Outcome.DELETED));
+        assertThat(actual2.get(0).getTicket().getId(), is(ticket.getId()));
+        assertThat(ticketRepository.findAll(), is(empty()));
+    }
+
+    @Test
+    void shouldThrowWhenApplyBatchAndUnknownAgent() {
+        BatchTicketInput input = BatchTicketInput.builder()
+                .ids(List.of(ticket.getId()))
+                .action(BatchTicketInput.Action.UPDATE)
+                .agent("unknown")
+                .build();
+
+        assertThrows(AgentNotFoundException.class, () -> ticketService.applyBatch(input, agentAuthentication));
+    }
 }
@@ -0,0 +1,208 @@
+package com.peterith.supportticketportalserver.sla;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class SlaSchedulerTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    SlaScheduler slaScheduler;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+
+    Authentication clientAuthentication = new UsernamePasswordAuthenticationToken(
+            client.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.CLIENT)));
+
+    Ticket ticket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.LOW)
+            .author(client)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.save(ticket);
+        slaScheduler.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+        slaScheduler.reload();
+    }
+
+    @Test
+    void shouldFireTimersAcrossWheelLevelsWhenAdvanced() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+        List<String> fired = new ArrayList<>();
+
+        wheel.schedule("level 0", 5);
+        wheel.schedule("level 1", 100);
+        wheel.schedule("level 2", 5000);
+        wheel.schedule("beyond top level", 300000);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 50);
+
+        assertThat(wheel.cancel(cancelled), is(true));
+        assertThat(wheel.cancel(cancelled), is(false));
+        assertThat(wheel.size(), is(4));
+
+        wheel.advance(4, fired::add);
+        assertThat(fired, is(empty()));
+        wheel.advance(5, fired::add);
+        assertThat(fired, contains("level 0"));
+        wheel.advance(99, fired::add);
+        assertThat(fired, hasSize(1));
+        wheel.advance(100, fired::add);
+        wheel.advance(4999, fired::add);
+        assertThat(fired, contains("level 0", "level 1"));
+        wheel.advance(5000, fired::add);
+        wheel.advance(299999, fired::add);
+        assertThat(fired, contains("level 0", "level 1", "level 2"));
+        wheel.advance(300000, fired::add);
+        assertThat(fired, contains("level 0", "level 1", "level 2", "beyond top level"));
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    void shouldEscalatePriorityWhenSlaExpires() {
+        assertThat(slaScheduler.isScheduled(ticket.getId()), is(true));
+        double breached = meterRegistry.counter("tickets.sla.escalations", "outcome", "breached").count();
+        long now = System.currentTimeMillis();
+
+        slaScheduler.advance(now + Duration.ofDays(3).plusMinutes(1).toMillis());
+        assertThat(ticketRepository.findById(ticket.getId()).get().getPriority(), is(Priority.MEDIUM));
+        assertThat(slaScheduler.isScheduled(ticket.getId()), is(true));
+
+        slaScheduler.advance(now + Duration.ofDays(3).plusMinutes(2).toMillis());
+        assertThat(ticketRepository.findById(ticket.getId()).get().getPriority(), is(Priority.HIGH));
+
+        slaScheduler.advance(now + Duration.ofDays(3).plusMinutes(3).toMillis());
+        assertThat(ticketRepository.findById(ticket.getId()).get().getPriority(), is(Priority.HIGH));
+        assertThat(slaScheduler.isScheduled(ticket.getId()), is(false));
+        assertThat(meterRegistry.counter("tickets.sla.escalations", "outcome", "breached").count(),
+                is(breached + 1));
+    }
+
+    @Test
+    void shouldNotEscalateWhenTicketWasUpdatedAfterTimerWasArmed() {
+        Ticket saved = ticketRepository.findById(ticket.getId()).get();
+
+        Optional<TicketDTO> actual = ticketService.escalate(saved.getId(), saved.getVersion() - 1);
+        assertThat(actual, is(Optional.empty()));
+        assertThat(ticketRepository.findById(ticket.getId()).get().getPriority(), is(Priority.LOW));
+    }
+
+    @Test
+    void shouldCountConflictWhenEscalationRacesUpdate() {
+        double conflicts = meterRegistry.counter("tickets.sla.escalations", "outcome", "conflict").count();
+        double failed = meterRegistry.counter("tickets.sla.escalations", "outcome", "failed").count();
+        TicketService conflictingService = mock(TicketService.class);
+        when(conflictingService.escalate(any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, ticket.getId()));
+
+        ReflectionTestUtils.setField(slaScheduler, "ticketService", conflictingService);
+        try {
+            slaScheduler.advance(System.currentTimeMillis() + Duration.ofDays(3).plusMinutes(1).toMillis());
+        } finally {
+            ReflectionTestUtils.setField(slaScheduler, "ticketService", ticketService);
+        }
+
+        assertThat(meterRegistry.counter("tickets.sla.escalations", "outcome", "conflict").count(),
+                is(conflicts + 1));
+        assertThat(meterRegistry.counter("tickets.sla.escalations", "outcome", "failed").count(), is(failed));
+    }
+
+    @Test
+    void shouldDeferEscalationsPastCapToNextTickWhenManyExpire() {
+        ticketRepository.saveAll(List.of(lowTicket("Ticket 2"), lowTicket("Ticket 3")));
+        slaScheduler.reload();
+        double escalated = meterRegistry.counter("tickets.sla.escalations", "outcome", "escalated").count();
+        long expired = System.currentTimeMillis() + Duration.ofDays(3).plusMinutes(1).toMillis();
+
+        ReflectionTestUtils.setField(slaScheduler, "maxEscalations", 2);
+        try {
+            slaScheduler.advance(expired);
+            assertThat(meterRegistry.counter("tickets.sla.escalations", "outcome", "escalated").count(),
+                    is(escalated + 2));
+            assertThat(slaScheduler.pending(), is(3));
+
+            slaScheduler.advance(expired + Duration.ofSeconds(1).toMillis());
+            assertThat(ticketRepository.findAll(), everyItem(hasProperty("priority", not(Priority.LOW))));
+        } finally {
+            ReflectionTestUtils.setField(slaScheduler, "maxEscalations", 100);
+        }
+    }
+
+    @Test
+    void shouldCancelTimerWhenTicketClosedOrDeleted() {
+        TicketDTO created = ticketService.create(CreateTicketInput.builder()
+                .title("Ticket 2")
+                .category(Category.ACCOUNT)
+                .build(), client.getUsername());
+        assertThat(slaScheduler.isScheduled(created.getId()), is(true));
+        int pending = slaScheduler.pending();
+
+        ticketService.updateById(ticket.getId(), UpdateTicketInput.builder()
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(Status.CLOSED)
+                .category(ticket.getCategory())
+                .priority(ticket.getPriority())
+                .build(), clientAuthentication);
+        assertThat(slaScheduler.isScheduled(ticket.getId()), is(false));
+
+        ticketService.deleteById(created.getId(), client.getUsername());
+        assertThat(slaScheduler.isScheduled(created.getId()), is(false));
+        assertThat(slaScheduler.pending(), is(pending - 2));
+    }
+
+    private Ticket lowTicket(String title) {
+        return Ticket.builder()
+                .title(title)
+                .description("Description")
+                .status(Status.OPEN)
+                .category(Category.BUG)
+                .priority(Priority.LOW)
+                .author(client)
+                .build();
+    }
+}
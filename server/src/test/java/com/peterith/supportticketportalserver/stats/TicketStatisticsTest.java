@@ -0,0 +1,146 @@
+package com.peterith.supportticketportalserver.stats;
+
+import com.peterith.supportticketportalserver.dto.CreateTicketInput;
+import com.peterith.supportticketportalserver.dto.TicketDTO;
+import com.peterith.supportticketportalserver.dto.TicketStats;
+import com.peterith.supportticketportalserver.dto.UpdateTicketInput;
+import com.peterith.supportticketportalserver.model.*;
+import com.peterith.supportticketportalserver.repository.TicketRepository;
+import com.peterith.supportticketportalserver.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TicketStatisticsTest {
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    TicketStatistics ticketStatistics;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    User client = User.builder().id(1L).username("noobMaster").password("{noop}password").role(Role.CLIENT).build();
+    User agent = User.builder().id(2L).username("agent007").password("{noop}password").role(Role.AGENT).build();
+
+    Authentication clientAuthentication = new UsernamePasswordAuthenticationToken(
+            client.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_" + Role.CLIENT)));
+
+    Ticket ticket = Ticket.builder()
+            .title("Ticket 1")
+            .description("Description 1")
+            .status(Status.OPEN)
+            .category(Category.BUG)
+            .priority(Priority.MEDIUM)
+            .author(client)
+            .agent(agent)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository.save(ticket);
+        ticketStatistics.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCountExistingTicketsWhenReconciled() {
+        TicketStats stats = ticketStatistics.snapshot();
+
+        assertThat(stats.getTotal(), is(1L));
+        assertThat(stats.getUnassigned(), is(0L));
+        assertThat(stats.getByStatus().get(Status.OPEN), is(1L));
+        assertThat(stats.getByStatus().get(Status.CLOSED), is(0L));
+        assertThat(stats.getByCategory().get(Category.BUG), is(1L));
+        assertThat(stats.getByPriority().get(Priority.MEDIUM), is(1L));
+        assertThat(stats.getByAgent(), is(Map.of(agent.getUsername(), 1L)));
+        assertThat(stats.getReconciledAt(), is(notNullValue()));
+    }
+
+    @Test
+    void shouldUpdateCountersWhenTicketsChange() {
+        TicketDTO created = ticketService.create(CreateTicketInput.builder()
+                .title("Ticket 2")
+                .category(Category.FEATURE_REQUEST)
+                .build(), client.getUsername());
+
+        ticketService.updateById(ticket.getId(), UpdateTicketInput.builder()
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(Status.CLOSED)
+                .category(ticket.getCategory())
+                .priority(Priority.HIGH)
+                .build(), clientAuthentication);
+
+        TicketStats stats = ticketStatistics.snapshot();
+        assertThat(stats.getTotal(), is(2L));
+        assertThat(stats.getUnassigned(), is(0L));
+        assertThat(stats.getByAgent(), is(Map.of(agent.getUsername(), 2L)));
+        assertThat(stats.getByStatus().get(Status.OPEN), is(1L));
+        assertThat(stats.getByStatus().get(Status.CLOSED), is(1L));
+        assertThat(stats.getByCategory().get(Category.FEATURE_REQUEST), is(1L));
+        assertThat(stats.getByPriority().get(Priority.MEDIUM), is(1L));
+        assertThat(stats.getByPriority().get(Priority.HIGH), is(1L));
+
+        ticketService.deleteById(created.getId(), client.getUsername());
+        ticketService.deleteById(ticket.getId(), client.getUsername());
+
+        stats = ticketStatistics.snapshot();
+        assertThat(stats.getTotal(), is(0L));
+        assertThat(stats.getUnassigned(), is(0L));
+        assertThat(stats.getByAgent(), is(anEmptyMap()));
+    }
+
+    @Test
+    void shouldRepairDriftWhenReconciled() {
+        ticketRepository.deleteAll();
+        assertThat(ticketStatistics.snapshot().getTotal(), is(1L));
+
+        ticketStatistics.reconcile();
+        assertThat(ticketStatistics.snapshot().getTotal(), is(0L));
+    }
+
+    @Test
+    @WithMockUser(username = "agent007", roles = {"AGENT"})
+    void shouldReturnStatsWhenAgent() throws Exception {
+        mockMvc.perform(get("/tickets/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("total").value(1))
+                .andExpect(jsonPath("byStatus.OPEN").value(1))
+                .andExpect(jsonPath("byAgent.agent007").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "noobMaster", roles = {"CLIENT"})
+    void shouldReturnForbiddenWhenStatsAndClient() throws Exception {
+        mockMvc.perform(get("/tickets/stats")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,29 @@
+-- The schema of the original entities, as deployed before V2, with a few rows in it.
+CREATE TABLE user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    username VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE TABLE ticket (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    category VARCHAR(20) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    description VARCHAR(1000),
+    priority VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    agent_id BIGINT,
+    author_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+ALTER TABLE ticket ADD CONSTRAINT ticket_agent_id_fk FOREIGN KEY (agent_id) REFERENCES user (id);
+ALTER TABLE ticket ADD CONSTRAINT ticket_author_id_fk FOREIGN KEY (author_id) REFERENCES user (id);
+
+INSERT INTO user (id, username, password, role) VALUES (1, 'noobMaster', '{noop}password', 'CLIENT');
+INSERT INTO user (id, username, password, role) VALUES (2, 'agent007', '{noop}password', 'AGENT');
+INSERT INTO ticket (id, title, description, status, category, priority, author_id, agent_id, created_at, updated_at)
+VALUES (120, 'Existing ticket', 'Created before V2', 'OPEN', 'BUG', 'MEDIUM', 1, 2,
+        '2021-04-01 09:00:00', '2021-04-02 09:00:00');